@@ -0,0 +1,52 @@
+package com.salesforce.benchmarks;
+
+import com.salesforce.utils.ConfigReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Property lookups the framework performs per test (browser, waits, flags) and the credential decoding done on
+ * every login.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigReaderBenchmark {
+
+    @Benchmark
+    public String getBrowser() {
+        return ConfigReader.getBrowser();
+    }
+
+    @Benchmark
+    public String getPropertyWithDefault() {
+        return ConfigReader.getProperty("screenshot.policy", "always");
+    }
+
+    @Benchmark
+    public int getIntProperty() {
+        return ConfigReader.getIntProperty("wait.timeoutSeconds", 15);
+    }
+
+    @Benchmark
+    public String getUsername() {
+        return ConfigReader.getUsername();
+    }
+
+    @Benchmark
+    public String getPassword() {
+        return ConfigReader.getPassword();
+    }
+}
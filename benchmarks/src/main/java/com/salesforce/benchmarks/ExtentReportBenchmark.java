@@ -0,0 +1,74 @@
+package com.salesforce.benchmarks;
+
+import com.aventstack.extentreports.Status;
+import com.salesforce.utils.ExtentReportManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Report model cost at suite scale: recording a batch of tests the way the listener does, and flushing a report
+ * that already holds thousands of tests. Automatic flushing is disabled so each number isolates one operation.
+ */
+@Fork(value = 1, jvmArgsAppend = {"-Dreport.flushEveryTests=0", "-Dreport.flushIntervalSeconds=0"})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExtentReportBenchmark {
+    private static final int BATCH = 1000;
+
+    @State(Scope.Benchmark)
+    public static class PopulatedReport {
+        @Param({"1000", "5000"})
+        public int tests;
+
+        @Setup
+        public void populate() {
+            ExtentReportManager.getInstance();
+            for (int i = 0; i < tests; i++) {
+                recordTest(i);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Sequence {
+        int next;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public void createAndLogTests(Sequence sequence) {
+        ExtentReportManager.getInstance();
+        for (int i = 0; i < BATCH; i++) {
+            recordTest(sequence.next++);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public void flush(PopulatedReport report) {
+        ExtentReportManager.flush();
+    }
+
+    static void recordTest(int index) {
+        ExtentReportManager.createTest("benchmarkTest" + index);
+        ExtentReportManager.log(Status.INFO, "Test Started: benchmarkTest" + index);
+        ExtentReportManager.assignCategory("ExtentReportBenchmark");
+        ExtentReportManager.log(Status.INFO, "Browser session: REUSED, time to first command: 12 ms");
+        ExtentReportManager.log(Status.PASS, "Test Passed Successfully");
+        ExtentReportManager.endTest();
+    }
+}
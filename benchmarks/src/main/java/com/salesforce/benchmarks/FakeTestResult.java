@@ -0,0 +1,69 @@
+package com.salesforce.benchmarks;
+
+import com.salesforce.driver.DriverProvider;
+import org.openqa.selenium.WebDriver;
+import org.testng.ITestClass;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds the minimal {@link ITestResult} the report listener reads: name, method, parameters, test class,
+ * attributes, instance and throwable. Anything else the listener starts calling returns null until it is added here.
+ */
+final class FakeTestResult {
+
+    private FakeTestResult() {
+    }
+
+    static ITestResult create(String name, WebDriver driver) {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(DriverProvider.DRIVER_ATTRIBUTE, driver);
+        ITestClass testClass = (ITestClass) Proxy.newProxyInstance(FakeTestResult.class.getClassLoader(),
+                new Class<?>[]{ITestClass.class}, (proxy, method, args) ->
+                        "getRealClass".equals(method.getName()) ? ListenerBenchmark.class : null);
+        ITestNGMethod testMethod = (ITestNGMethod) Proxy.newProxyInstance(FakeTestResult.class.getClassLoader(),
+                new Class<?>[]{ITestNGMethod.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getMethodName":
+                            return name;
+                        case "getRealClass":
+                            return ListenerBenchmark.class;
+                        default:
+                            return null;
+                    }
+                });
+        return (ITestResult) Proxy.newProxyInstance(FakeTestResult.class.getClassLoader(),
+                new Class<?>[]{ITestResult.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getName":
+                            return name;
+                        case "getMethod":
+                            return testMethod;
+                        case "getParameters":
+                            return new Object[0];
+                        case "getTestClass":
+                            return testClass;
+                        case "getAttribute":
+                            return attributes.get((String) args[0]);
+                        case "setAttribute":
+                            return attributes.put((String) args[0], args[1]);
+                        case "removeAttribute":
+                            return attributes.remove((String) args[0]);
+                        case "getStatus":
+                            return ITestResult.SUCCESS;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return name;
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
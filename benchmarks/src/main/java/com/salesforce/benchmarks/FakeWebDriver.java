@@ -0,0 +1,140 @@
+package com.salesforce.benchmarks;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process WebDriver that answers the calls the framework's hot paths make without a browser, so the
+ * benchmarks run on headless CI. Screenshots are a real PNG of the configured size; when {@code uniqueScreenshots}
+ * is set, a counter is appended after the IEND chunk so every capture hashes differently and reaches the disk.
+ */
+public class FakeWebDriver implements WebDriver, TakesScreenshot, JavascriptExecutor {
+    private final byte[] png;
+    private final boolean uniqueScreenshots;
+    private final AtomicLong captures = new AtomicLong();
+    private volatile String currentUrl = "about:blank";
+
+    public FakeWebDriver(int width, int height, boolean uniqueScreenshots) {
+        this.png = renderPng(width, height);
+        this.uniqueScreenshots = uniqueScreenshots;
+    }
+
+    public int getScreenshotSize() {
+        return png.length;
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        byte[] bytes = png;
+        if (uniqueScreenshots) {
+            bytes = ByteBuffer.allocate(png.length + Long.BYTES).put(png).putLong(captures.incrementAndGet()).array();
+        }
+        return target.convertFromPngBytes(bytes);
+    }
+
+    @Override
+    public Object executeScript(String script, Object... args) {
+        return null;
+    }
+
+    @Override
+    public Object executeAsyncScript(String script, Object... args) {
+        return null;
+    }
+
+    @Override
+    public void get(String url) {
+        currentUrl = url;
+    }
+
+    @Override
+    public String getCurrentUrl() {
+        return currentUrl;
+    }
+
+    @Override
+    public String getTitle() {
+        return "Fake";
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        throw new NoSuchElementException("FakeWebDriver has no elements: " + by);
+    }
+
+    @Override
+    public String getPageSource() {
+        return "<html><body></body></html>";
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void quit() {
+    }
+
+    @Override
+    public Set<String> getWindowHandles() {
+        return Collections.singleton("fake-window");
+    }
+
+    @Override
+    public String getWindowHandle() {
+        return "fake-window";
+    }
+
+    @Override
+    public TargetLocator switchTo() {
+        throw new UnsupportedOperationException("switchTo");
+    }
+
+    @Override
+    public Navigation navigate() {
+        throw new UnsupportedOperationException("navigate");
+    }
+
+    @Override
+    public Options manage() {
+        throw new UnsupportedOperationException("manage");
+    }
+
+    private static byte[] renderPng(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        // Banded content compresses roughly like a rendered page rather than like a flat fill
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, ((x / 8) * 0x010203 + (y / 4) * 0x030201) & 0xFFFFFF);
+            }
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.salesforce.benchmarks;
+
+import com.salesforce.listeners.ExtentReportListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testng.ITestResult;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-test overhead the report listener adds around a passing test (onTestStart plus onTestSuccess), with
+ * screenshots disabled and with a distinct screenshot captured for every test.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class ListenerBenchmark {
+    private static final int BATCH = 500;
+
+    private final ExtentReportListener listener = new ExtentReportListener();
+    private FakeWebDriver driver;
+    private int sequence;
+
+    @Setup
+    public void setUp() {
+        driver = new FakeWebDriver(1280, 800, true);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Dscreenshot.policy=never", "-Dreport.flushEveryTests=0",
+            "-Dreport.flushIntervalSeconds=0"})
+    public void passingTestsWithoutScreenshots() {
+        runBatch();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Dscreenshot.policy=always", "-Dreport.flushEveryTests=0",
+            "-Dreport.flushIntervalSeconds=0"})
+    public void passingTestsWithScreenshots() {
+        runBatch();
+    }
+
+    private void runBatch() {
+        for (int i = 0; i < BATCH; i++) {
+            ITestResult result = FakeTestResult.create("listenerTest" + sequence++, driver);
+            listener.onTestStart(result);
+            listener.onTestSuccess(result);
+        }
+    }
+}
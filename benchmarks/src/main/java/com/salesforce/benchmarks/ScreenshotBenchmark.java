@@ -0,0 +1,66 @@
+package com.salesforce.benchmarks;
+
+import com.salesforce.utils.ExtentReportManager;
+import com.salesforce.utils.ScreenshotUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Screenshot capture from bytes to disk: the dedup hit path, and a batch of distinct captures measured until the
+ * writer has drained them to the run's screenshots folder.
+ */
+@Fork(value = 1, jvmArgsAppend = {"-Dscreenshot.policy=always", "-Dreport.flushIntervalSeconds=0"})
+@State(Scope.Benchmark)
+public class ScreenshotBenchmark {
+    private static final int BATCH = 100;
+
+    private FakeWebDriver uniqueDriver;
+    private FakeWebDriver repeatingDriver;
+    private int sequence;
+
+    @Setup
+    public void setUp() {
+        ExtentReportManager.getInstance();
+        uniqueDriver = new FakeWebDriver(1280, 800, true);
+        repeatingDriver = new FakeWebDriver(1280, 800, false);
+        ScreenshotUtil.captureScreenshot(repeatingDriver, "seed");
+        ScreenshotUtil.awaitPendingWrites(30000);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ScreenshotUtil.awaitPendingWrites(30000);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public String captureDuplicate() {
+        return ScreenshotUtil.captureScreenshot(repeatingDriver, "duplicate");
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    public boolean captureBatchToDisk() {
+        for (int i = 0; i < BATCH; i++) {
+            ScreenshotUtil.captureScreenshot(uniqueDriver, "unique_" + sequence++);
+        }
+        return ScreenshotUtil.awaitPendingWrites(30000);
+    }
+}
@@ -0,0 +1,263 @@
+package com.salesforce.auth;
+
+import com.salesforce.pages.LoginPage;
+import com.salesforce.utils.ConfigReader;
+import com.salesforce.utils.Waiter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * Logged-in browser state shared by {@link Authenticated} tests. The first such test of the run (or of each
+ * worker thread with auth.session.scope=thread) logs in through the UI, and the cookies, localStorage and
+ * sessionStorage of the page it lands on are captured; later sessions get them injected instead. A cached state
+ * is dropped once it expires, or when restoring it ends on the login page or an HTTP 401, and the test then
+ * logs in through the UI again.
+ */
+public class AuthSessionCache {
+    private static final Logger logger = LogManager.getLogger(AuthSessionCache.class);
+    private static final boolean perThread = "thread".equalsIgnoreCase(ConfigReader.getProperty("auth.session.scope", "run"));
+    private static final long ttlMillis = ConfigReader.getIntProperty("auth.session.ttlMinutes", 30) * 60_000L;
+    private static final String CAPTURE_STORAGE_SCRIPT =
+            "var dump = function (storage) { var items = {}; for (var i = 0; i < storage.length; i++) {"
+            + " var key = storage.key(i); items[key] = storage.getItem(key); } return items; };"
+            + " return {local: dump(window.localStorage), session: dump(window.sessionStorage)};";
+    private static final String RESTORE_STORAGE_SCRIPT =
+            "var state = arguments[0];"
+            + " Object.keys(state.local).forEach(function (key) { window.localStorage.setItem(key, state.local[key]); });"
+            + " Object.keys(state.session).forEach(function (key) { window.sessionStorage.setItem(key, state.session[key]); });";
+    private static final String NAVIGATION_STATUS_SCRIPT =
+            "try { var entry = performance.getEntriesByType('navigation')[0];"
+            + " return entry && entry.responseStatus ? entry.responseStatus : 0; } catch (e) { return 0; }";
+    private static final AtomicReference<SessionState> runState = new AtomicReference<>();
+    private static final ThreadLocal<SessionState> threadState = new ThreadLocal<>();
+    private static final Object loginLock = new Object();
+    private static final AtomicInteger uiLogins = new AtomicInteger();
+    private static final AtomicInteger restores = new AtomicInteger();
+    private static final AtomicInteger invalidations = new AtomicInteger();
+
+    /**
+     * Leaves the driver logged in on the post-login page, restoring the cached state when there is a valid one
+     * and logging in through the UI otherwise.
+     */
+    public static void authenticate(WebDriver driver, Waiter wait) {
+        SessionState state = cached();
+        if (state != null) {
+            if (restore(driver, state)) {
+                return;
+            }
+            invalidate(state);
+        }
+        if (perThread) {
+            threadState.set(login(driver, wait));
+            return;
+        }
+        synchronized (loginLock) {
+            SessionState current = runState.get();
+            if (current != null && current != state && !current.isExpired() && restore(driver, current)) {
+                return;
+            }
+            runState.set(login(driver, wait));
+        }
+    }
+
+    /**
+     * Drops the cached state for the current scope, e.g. after a test hits a 401 of its own.
+     */
+    public static void invalidate() {
+        SessionState state = perThread ? threadState.get() : runState.get();
+        if (state != null) {
+            invalidate(state);
+        }
+    }
+
+    public static int getUiLogins() {
+        return uiLogins.get();
+    }
+
+    public static int getRestores() {
+        return restores.get();
+    }
+
+    public static int getInvalidations() {
+        return invalidations.get();
+    }
+
+    private static SessionState cached() {
+        SessionState state = perThread ? threadState.get() : runState.get();
+        if (state != null && state.isExpired()) {
+            logger.info("Cached login session expired");
+            invalidate(state);
+            return null;
+        }
+        return state;
+    }
+
+    private static void invalidate(SessionState state) {
+        boolean removed;
+        if (perThread) {
+            removed = threadState.get() == state;
+            threadState.remove();
+        } else {
+            removed = runState.compareAndSet(state, null);
+        }
+        if (removed) {
+            invalidations.incrementAndGet();
+        }
+    }
+
+    private static SessionState login(WebDriver driver, Waiter wait) {
+        logger.info("Logging in through the UI to capture a session");
+        driver.manage().deleteAllCookies();
+        driver.get(ConfigReader.getUrl());
+        LoginPage loginPage = new LoginPage(driver, wait);
+        loginPage.performLogin(ConfigReader.getUsername(), ConfigReader.getPassword());
+        LoginPage.LoginOutcome outcome = loginPage.awaitLoginOutcome();
+        if (outcome != LoginPage.LoginOutcome.HOME_PAGE) {
+            throw new IllegalStateException("Login for the session cache did not reach the home page: " + outcome);
+        }
+        uiLogins.incrementAndGet();
+        return SessionState.capture(driver);
+    }
+
+    private static boolean restore(WebDriver driver, SessionState state) {
+        try {
+            state.injectInto(driver);
+            Object status = ((JavascriptExecutor) driver).executeScript(NAVIGATION_STATUS_SCRIPT);
+            if (status instanceof Number && ((Number) status).intValue() == 401) {
+                logger.info("Cached login session rejected with HTTP 401");
+                return false;
+            }
+            if (isLoginPage(driver.getCurrentUrl())) {
+                logger.info("Cached login session redirected to the login page");
+                return false;
+            }
+            restores.incrementAndGet();
+            logger.info("Restored cached login session at {}", driver.getCurrentUrl());
+            return true;
+        } catch (WebDriverException e) {
+            logger.warn("Failed to restore cached login session: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean isLoginPage(String url) {
+        try {
+            URI current = URI.create(url);
+            URI login = URI.create(ConfigReader.getUrl());
+            return String.valueOf(current.getHost()).equalsIgnoreCase(login.getHost())
+                    && current.getPort() == login.getPort()
+                    && trimSlash(current.getPath()).equals(trimSlash(login.getPath()));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static String trimSlash(String path) {
+        return path == null ? "" : path.replaceAll("/+$", "");
+    }
+
+    /**
+     * Cookies and storage of the post-login page. It expires after auth.session.ttlMinutes, or earlier when one
+     * of its HttpOnly cookies (where session ids live) does.
+     */
+    private static class SessionState {
+        private final String landingUrl;
+        private final Set<Cookie> cookies;
+        private final Map<String, Object> storage;
+        private final long expiresAtMillis;
+
+        private SessionState(String landingUrl, Set<Cookie> cookies, Map<String, Object> storage, long expiresAtMillis) {
+            this.landingUrl = landingUrl;
+            this.cookies = cookies;
+            this.storage = storage;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        @SuppressWarnings("unchecked")
+        static SessionState capture(WebDriver driver) {
+            Set<Cookie> cookies = new HashSet<>(driver.manage().getCookies());
+            Object storage = ((JavascriptExecutor) driver).executeScript(CAPTURE_STORAGE_SCRIPT);
+            long expiresAt = System.currentTimeMillis() + ttlMillis;
+            for (Cookie cookie : cookies) {
+                if (cookie.isHttpOnly() && cookie.getExpiry() != null) {
+                    expiresAt = Math.min(expiresAt, cookie.getExpiry().getTime());
+                }
+            }
+            logger.info("Captured login session: {} cookies at {}", box(cookies.size()), driver.getCurrentUrl());
+            return new SessionState(driver.getCurrentUrl(), cookies,
+                    storage instanceof Map ? (Map<String, Object>) storage : Collections.emptyMap(), expiresAt);
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAtMillis;
+        }
+
+        /**
+         * Sets the cookies (over CDP where available, so no navigation to the cookie's domain is needed), opens
+         * the landing page and restores storage, reloading once if there was any.
+         */
+        void injectInto(WebDriver driver) {
+            driver.manage().deleteAllCookies();
+            if (driver instanceof HasCdp) {
+                for (Cookie cookie : cookies) {
+                    ((HasCdp) driver).executeCdpCommand("Network.setCookie", cdpCookie(cookie));
+                }
+            } else {
+                driver.get(landingUrl);
+                for (Cookie cookie : cookies) {
+                    driver.manage().addCookie(cookie);
+                }
+            }
+            driver.get(landingUrl);
+            if (hasStorage()) {
+                ((JavascriptExecutor) driver).executeScript(RESTORE_STORAGE_SCRIPT, storage);
+                driver.navigate().refresh();
+            }
+        }
+
+        private boolean hasStorage() {
+            for (Object items : storage.values()) {
+                if (items instanceof Map && !((Map<?, ?>) items).isEmpty()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private Map<String, Object> cdpCookie(Cookie cookie) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("name", cookie.getName());
+            params.put("value", cookie.getValue());
+            params.put("url", landingUrl);
+            if (cookie.getDomain() != null) {
+                params.put("domain", cookie.getDomain());
+            }
+            params.put("path", cookie.getPath() == null ? "/" : cookie.getPath());
+            params.put("secure", cookie.isSecure());
+            params.put("httpOnly", cookie.isHttpOnly());
+            if (cookie.getSameSite() != null) {
+                params.put("sameSite", cookie.getSameSite());
+            }
+            if (cookie.getExpiry() != null) {
+                params.put("expires", cookie.getExpiry().getTime() / 1000);
+            }
+            return params;
+        }
+    }
+}
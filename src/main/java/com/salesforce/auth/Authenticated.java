@@ -0,0 +1,15 @@
+package com.salesforce.auth;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a test method or class that should start already logged in, through {@link AuthSessionCache}, instead
+ * of on the login page. Tests of the login form itself should not use it.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Authenticated {
+}
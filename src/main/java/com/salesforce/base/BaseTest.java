@@ -1,30 +1,50 @@
 package com.salesforce.base;
 
+import com.salesforce.auth.AuthSessionCache;
+import com.salesforce.auth.Authenticated;
+import com.salesforce.driver.BrowserProfile;
+import com.salesforce.driver.DriverManager;
+import com.salesforce.driver.DriverPool;
+import com.salesforce.driver.DriverProvider;
+import com.salesforce.driver.DriverWarmer;
+import com.salesforce.driver.ReuseScope;
+import com.salesforce.driver.SessionWatchdog;
+import com.salesforce.standin.LoginStandInServer;
+import com.salesforce.utils.CommandLatency;
 import com.salesforce.utils.ConfigReader;
 import com.salesforce.utils.ExtentReportManager;
-import io.github.bonigarcia.wdm.WebDriverManager;
+import com.salesforce.utils.TestLogContext;
+import com.salesforce.utils.Waiter;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.edge.EdgeDriver;
-import org.openqa.selenium.edge.EdgeOptions;
-import org.openqa.selenium.firefox.FirefoxDriver;
-import org.openqa.selenium.firefox.FirefoxOptions;
-import org.openqa.selenium.safari.SafariDriver;
-import org.openqa.selenium.support.ui.WebDriverWait;
+import org.testng.ITestContext;
 import org.testng.ITestResult;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
+import org.testng.annotations.AfterTest;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.BeforeSuite;
 import org.testng.annotations.BeforeTest;
 
 import java.time.Duration;
+import java.util.Arrays;
 
-public class BaseTest {
+import static org.apache.logging.log4j.util.Unbox.box;
+
+public class BaseTest implements DriverProvider {
+    public static final String TIME_TO_FIRST_COMMAND_ATTRIBUTE = "timeToFirstCommandMs";
+    public static final String SESSION_SOURCE_ATTRIBUTE = "sessionSource";
     protected static final Logger logger = LogManager.getLogger(BaseTest.class);
-    protected WebDriver driver;
-    protected WebDriverWait wait;
+    private static final ReuseScope reuseScope = ReuseScope.fromConfig();
+
+    @BeforeSuite(alwaysRun = true)
+    public void beforeSuite(ITestContext context) {
+        BrowserProfile.selectForSuite(context.getSuite().getParameter("browser.profile"));
+        DriverWarmer.start(ConfigReader.getBrowser().toLowerCase());
+    }
 
     @BeforeTest
     public void beforeTest() {
@@ -34,52 +54,112 @@ public class BaseTest {
 
     @BeforeMethod
     public void setUp(ITestResult result) {
-        logger.info("Setting up WebDriver for test: " + result.getName());
-        logger.info("Report will be generated at: " + ExtentReportManager.getReportFilePath());
-        initializeDriver();
-        driver.manage().window().maximize();
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-        wait = new WebDriverWait(driver, Duration.ofSeconds(15));
-        driver.get(ConfigReader.getUrl());
-        logger.info("Navigated to URL: " + ConfigReader.getUrl());
+        String testName = getDisplayName(result);
+        TestLogContext.begin(testName);
+        SessionWatchdog.Guard guard = SessionWatchdog.watch(testName);
+        result.setAttribute(SessionWatchdog.GUARD_ATTRIBUTE, guard);
+        WebDriver driver = null;
+        try {
+            if (SessionWatchdog.isSuiteBudgetExceeded()) {
+                throw new SkipException("Skipping test: the suite ran past its watchdog.suiteTimeoutMinutes budget");
+            }
+            logger.info("Setting up WebDriver for test: {}", testName);
+            logger.info("Report will be generated at: {}", ExtentReportManager.getReportFilePath());
+            CommandLatency.beginTest(testName);
+            boolean authenticated = requiresAuthentication(result);
+            if (authenticated && !ConfigReader.hasValidCredentials()) {
+                throw new SkipException("Skipping test: Update global.properties with real Salesforce credentials (Base64 encoded) to run authenticated tests");
+            }
+            long startNanos = System.nanoTime();
+            driver = DriverPool.borrow(sessionScopeKey(result));
+            guard.attach(driver);
+            Duration waitTimeout = Duration.ofSeconds(ConfigReader.getIntProperty("wait.timeoutSeconds", 15));
+            DriverManager.setDriver(driver, new Waiter(driver, waitTimeout));
+            result.setAttribute(DRIVER_ATTRIBUTE, driver);
+            driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+            long timeToFirstCommandMs = (System.nanoTime() - startNanos) / 1_000_000;
+            result.setAttribute(TIME_TO_FIRST_COMMAND_ATTRIBUTE, timeToFirstCommandMs);
+            result.setAttribute(SESSION_SOURCE_ATTRIBUTE, DriverPool.getLastBorrowSource());
+            logger.info("Session ready at URL: {} ({}, time to first command {} ms)", ConfigReader.getUrl(),
+                    DriverPool.getLastBorrowSource(), box(timeToFirstCommandMs));
+            if (authenticated) {
+                AuthSessionCache.authenticate(driver, getWait());
+            }
+        } catch (RuntimeException e) {
+            guard.close();
+            if (driver != null) {
+                // TestNG skips tearDown after a setUp failure, so the session goes back here or its slot is lost
+                DriverPool.release(driver);
+                DriverManager.unload();
+                result.removeAttribute(DRIVER_ATTRIBUTE);
+            }
+            TestLogContext.end();
+            throw e;
+        }
     }
 
     @AfterMethod
     public void tearDown(ITestResult result) {
+        Object guard = result.getAttribute(SessionWatchdog.GUARD_ATTRIBUTE);
+        if (guard instanceof SessionWatchdog.Guard) {
+            ((SessionWatchdog.Guard) guard).close();
+        }
+        WebDriver driver = DriverManager.getDriver();
         if (driver != null) {
-            logger.info("Closing WebDriver for test: " + result.getName());
-            driver.quit();
+            logger.info("Closing WebDriver for test: {}", result.getName());
+            DriverPool.release(driver, sessionScopeKey(result));
+            DriverManager.unload();
+            result.removeAttribute(DRIVER_ATTRIBUTE);
         }
+        TestLogContext.end();
     }
 
-    private void initializeDriver() {
-        String browser = ConfigReader.getBrowser().toLowerCase();
-        logger.info("Initializing browser: " + browser);
-        switch (browser) {
-            case "chrome":
-                WebDriverManager.chromedriver().setup();
-                ChromeOptions chromeOptions = new ChromeOptions();
-                chromeOptions.addArguments("--disable-notifications");
-                chromeOptions.addArguments("--disable-popup-blocking");
-                driver = new ChromeDriver(chromeOptions);
-                break;
-            case "firefox":
-                WebDriverManager.firefoxdriver().setup();
-                FirefoxOptions firefoxOptions = new FirefoxOptions();
-                firefoxOptions.addPreference("dom.webnotifications.enabled", false);
-                driver = new FirefoxDriver(firefoxOptions);
-                break;
-            case "edge":
-                WebDriverManager.edgedriver().setup();
-                EdgeOptions edgeOptions = new EdgeOptions();
-                edgeOptions.addArguments("--disable-notifications");
-                driver = new EdgeDriver(edgeOptions);
-                break;
-            case "safari":
-                driver = new SafariDriver();
-                break;
-            default:
-                throw new IllegalArgumentException("Unsupported browser: " + browser);
+    @AfterClass(alwaysRun = true)
+    public void afterClass(ITestContext context) {
+        if (reuseScope == ReuseScope.CLASS) {
+            DriverPool.closeScope(reuseScope.scopeKey(getClass(), context));
         }
     }
+
+    @AfterTest(alwaysRun = true)
+    public void afterTest(ITestContext context) {
+        if (reuseScope == ReuseScope.TEST) {
+            DriverPool.closeScope(reuseScope.scopeKey(getClass(), context));
+        }
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void afterSuite() {
+        DriverPool.shutdown();
+        LoginStandInServer.stop();
+    }
+
+    /**
+     * Report name of a test invocation: the method name, followed by the parameters for data-driven tests.
+     */
+    public static String getDisplayName(ITestResult result) {
+        return getDisplayName(result.getMethod().getMethodName(), result.getParameters());
+    }
+
+    public static String getDisplayName(String methodName, Object[] parameters) {
+        return parameters.length == 0 ? methodName : methodName + " " + Arrays.toString(parameters);
+    }
+
+    private boolean requiresAuthentication(ITestResult result) {
+        return result.getMethod().getConstructorOrMethod().getMethod().isAnnotationPresent(Authenticated.class)
+                || result.getTestClass().getRealClass().isAnnotationPresent(Authenticated.class);
+    }
+
+    private String sessionScopeKey(ITestResult result) {
+        return reuseScope.scopeKey(result.getTestClass().getRealClass(), result.getTestContext());
+    }
+
+    @Override
+    public WebDriver getDriver() {
+        return DriverManager.getDriver();
+    }
+
+    protected Waiter getWait() {
+        return DriverManager.getWait();
+    }
 }
@@ -0,0 +1,101 @@
+package com.salesforce.data;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One data line of a {@link DataRows} file, held as its position only: the values are read from the file when
+ * {@link #read()} is called on the test's thread, so a drained DataProvider does not keep the dataset in memory.
+ */
+public class DataRow {
+    private final Path file;
+    private final String[] header;
+    private final long offset;
+    private final int length;
+    private final int lineNumber;
+
+    DataRow(Path file, String[] header, long offset, int length, int lineNumber) {
+        this.file = file;
+        this.header = header;
+        this.offset = offset;
+        this.length = length;
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * Returns the row's values by column (CSV header name or JSON key); missing values are empty strings.
+     */
+    public Map<String, String> read() {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining() && channel.read(buffer, offset + buffer.position()) != -1) {
+                // keep reading until the whole line is in
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + this, e);
+        }
+        String text = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8).trim();
+        Map<String, String> values = new LinkedHashMap<>();
+        if (header == null) {
+            Map<String, Object> json = new Json().toType(text, Json.MAP_TYPE);
+            json.forEach((key, value) -> values.put(key, value == null ? "" : String.valueOf(value)));
+        } else {
+            String[] fields = parseCsvLine(text);
+            for (int i = 0; i < header.length; i++) {
+                values.put(header[i], i < fields.length ? fields[i] : "");
+            }
+        }
+        return values;
+    }
+
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public String toString() {
+        return file.getFileName() + ":" + lineNumber;
+    }
+
+    /**
+     * Splits one CSV line on commas; fields may be double-quoted, with {@code ""} for a literal quote.
+     */
+    static String[] parseCsvLine(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,119 @@
+package com.salesforce.data;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazily scans a CSV (with a header line) or JSONL file, one line at a time, and yields a {@link DataRow}
+ * per data line for a TestNG DataProvider. Blank lines and lines starting with {@code #} are skipped; CSV
+ * records must fit on one line. The file is closed once the last row has been read.
+ */
+public class DataRows implements Iterator<Object[]> {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private final Path file;
+    private final boolean jsonLines;
+    private final InputStream in;
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+    private String[] header;
+    private long offset;
+    private int lineNumber;
+    private DataRow next;
+    private boolean closed;
+
+    private DataRows(Path file) throws IOException {
+        this.file = file;
+        this.jsonLines = file.getFileName().toString().toLowerCase().endsWith(".jsonl");
+        this.in = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE);
+    }
+
+    /**
+     * Opens the file for streaming; the format is picked by extension ({@code .jsonl} or CSV otherwise).
+     */
+    public static Iterator<Object[]> open(Path file) {
+        try {
+            return new DataRows(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open data file " + file, e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !closed) {
+            next = readRow();
+        }
+        return next != null;
+    }
+
+    @Override
+    public Object[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        DataRow row = next;
+        next = null;
+        return new Object[]{row};
+    }
+
+    private DataRow readRow() {
+        try {
+            while (true) {
+                long start = offset;
+                if (!readLine()) {
+                    close();
+                    return null;
+                }
+                String text = line.toString(StandardCharsets.UTF_8.name()).trim();
+                if (text.isEmpty() || text.startsWith("#")) {
+                    continue;
+                }
+                if (!jsonLines && header == null) {
+                    header = DataRow.parseCsvLine(text);
+                    continue;
+                }
+                return new DataRow(file, header, start, line.size(), lineNumber);
+            }
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException("Failed to read data file " + file, e);
+        }
+    }
+
+    /**
+     * Reads the next line's bytes (without the line terminator) into {@link #line}; false at end of file.
+     */
+    private boolean readLine() throws IOException {
+        line.reset();
+        int b;
+        while ((b = in.read()) != -1) {
+            offset++;
+            if (b == '\n') {
+                lineNumber++;
+                return true;
+            }
+            line.write(b);
+        }
+        if (line.size() == 0) {
+            return false;
+        }
+        lineNumber++;
+        return true;
+    }
+
+    private void close() {
+        closed = true;
+        try {
+            in.close();
+        } catch (IOException ignored) {
+            // nothing left to read
+        }
+    }
+}
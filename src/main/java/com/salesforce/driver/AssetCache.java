@@ -0,0 +1,159 @@
+package com.salesforce.driver;
+
+import com.salesforce.utils.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * On-disk cache of static asset responses (network.cache.dir) served by {@link ResourceBlocker} instead of
+ * going to the network, plus an index of response sizes seen per URL that is used to estimate the bytes saved
+ * by blocking. Entries survive across runs; delete the directory to refresh them.
+ */
+public class AssetCache {
+    private static final Logger logger = LogManager.getLogger(AssetCache.class);
+    private static final String SIZES_FILE = "sizes.properties";
+    private static final Set<String> DROPPED_HEADERS = new HashSet<>(Arrays.asList(
+            "content-encoding", "content-length", "transfer-encoding", "set-cookie", "date"));
+    private static final Path dir = Paths.get(ConfigReader.getProperty("network.cache.dir", "target/asset-cache"));
+    private static final Map<String, Long> sizes = loadSizes();
+
+    public static HttpResponse lookup(String url) {
+        Path body = dir.resolve(key(url) + ".bin");
+        Path meta = dir.resolve(key(url) + ".properties");
+        if (!Files.isRegularFile(body) || !Files.isRegularFile(meta)) {
+            return null;
+        }
+        try {
+            Properties headers = read(meta);
+            HttpResponse response = new HttpResponse().setStatus(Integer.parseInt(headers.getProperty(":status", "200")));
+            for (String name : headers.stringPropertyNames()) {
+                if (!name.startsWith(":")) {
+                    response.addHeader(name, headers.getProperty(name));
+                }
+            }
+            byte[] bytes = Files.readAllBytes(body);
+            return response.setHeader("Content-Length", String.valueOf(bytes.length)).setContent(Contents.bytes(bytes));
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable asset cache entry for " + url + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Stores a successful response body; the body has already been decoded by the browser, so encoding and
+     * length headers are not kept.
+     */
+    public static void store(String url, HttpResponse response, byte[] bytes) {
+        Properties headers = new Properties();
+        headers.setProperty(":url", url);
+        headers.setProperty(":status", String.valueOf(response.getStatus()));
+        response.forEachHeader((name, value) -> {
+            if (!DROPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.setProperty(name, value);
+            }
+        });
+        try {
+            Files.createDirectories(dir);
+            String key = key(url);
+            write(dir.resolve(key + ".bin"), out -> out.write(bytes));
+            write(dir.resolve(key + ".properties"), out -> headers.store(out, null));
+        } catch (IOException e) {
+            logger.warn("Failed to cache " + url + ": " + e.getMessage());
+        }
+    }
+
+    public static void recordSize(String url, long bytes) {
+        sizes.put(url, bytes);
+    }
+
+    /**
+     * Returns the last seen response size for the URL, or -1 when it has never been fetched through the
+     * interceptor.
+     */
+    public static long knownSize(String url) {
+        return sizes.getOrDefault(url, -1L);
+    }
+
+    public static synchronized void saveSizes() {
+        Properties index = new Properties();
+        sizes.forEach((url, bytes) -> index.setProperty(url, String.valueOf(bytes)));
+        try {
+            Files.createDirectories(dir);
+            write(dir.resolve(SIZES_FILE), out -> index.store(out, "Response sizes by URL"));
+        } catch (IOException e) {
+            logger.warn("Failed to save asset size index: " + e.getMessage());
+        }
+    }
+
+    private static Map<String, Long> loadSizes() {
+        Map<String, Long> loaded = new ConcurrentHashMap<>();
+        Path file = dir.resolve(SIZES_FILE);
+        if (Files.isRegularFile(file)) {
+            try {
+                Properties index = read(file);
+                for (String url : index.stringPropertyNames()) {
+                    loaded.put(url, Long.parseLong(index.getProperty(url)));
+                }
+            } catch (IOException | NumberFormatException e) {
+                logger.warn("Ignoring unreadable asset size index: " + e.getMessage());
+            }
+        }
+        return loaded;
+    }
+
+    private static Properties read(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+        return properties;
+    }
+
+    private static void write(Path file, Writer writer) throws IOException {
+        Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                writer.writeTo(out);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String key(String url) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8))) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private interface Writer {
+        void writeTo(OutputStream out) throws IOException;
+    }
+}
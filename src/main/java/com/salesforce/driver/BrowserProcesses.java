@@ -0,0 +1,307 @@
+package com.salesforce.driver;
+
+import com.salesforce.utils.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.remote.service.DriverService;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks the driver service process of every session this JVM launches, and the browser processes under it,
+ * in reaper.pidFile (shared by every run of the workspace, guarded by a file lock). Each entry carries the
+ * process start time and the owning JVM, so a reused PID is never mistaken for one of ours. Before the first
+ * launch, processes left by runs whose JVM is gone are killed; at suite end and JVM shutdown, whatever this
+ * run started and is still alive is killed. reaper.enabled=false keeps the tracking (the watchdog needs it)
+ * but kills nothing at startup or shutdown.
+ */
+public class BrowserProcesses {
+    private static final Logger logger = LogManager.getLogger(BrowserProcesses.class);
+    private static final boolean enabled = Boolean.parseBoolean(ConfigReader.getProperty("reaper.enabled", "true"));
+    private static final Path pidFile = Paths.get(ConfigReader.getProperty("reaper.pidFile", "reports/browser-pids.txt"));
+    private static final long graceMillis = ConfigReader.getIntProperty("reaper.graceMillis", 2000);
+    private static final ProcessHandle self = ProcessHandle.current();
+    private static final Map<WebDriver, ProcessHandle> services = Collections.synchronizedMap(new IdentityHashMap<>());
+    private static final AtomicBoolean reaped = new AtomicBoolean();
+    private static final AtomicInteger orphansKilled = new AtomicInteger();
+    private static final AtomicInteger leftoversKilled = new AtomicInteger();
+
+    static {
+        if (enabled) {
+            Runtime.getRuntime().addShutdownHook(new Thread(BrowserProcesses::killLeftovers, "browser-process-reaper"));
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Kills the processes recorded by runs whose JVM has exited; runs once per JVM.
+     */
+    public static void reapOrphans() {
+        if (!enabled || !reaped.compareAndSet(false, true) || !Files.exists(pidFile)) {
+            return;
+        }
+        List<Entry> orphans = new ArrayList<>();
+        updatePidFile(entries -> {
+            List<Entry> kept = new ArrayList<>();
+            for (Entry entry : entries) {
+                if (entry.isOwnerAlive()) {
+                    kept.add(entry);
+                } else {
+                    orphans.add(entry);
+                }
+            }
+            return kept;
+        });
+        int killed = 0;
+        for (Entry orphan : orphans) {
+            Optional<ProcessHandle> process = orphan.find();
+            if (process.isPresent()) {
+                logger.warn("Killing orphaned browser process {} ({}) left by JVM {}", orphan.pid, orphan.command, orphan.ownerPid);
+                killed += destroyTree(process.get());
+            }
+        }
+        orphansKilled.addAndGet(killed);
+        if (killed > 0) {
+            logger.warn("Reaped {} orphaned browser processes from earlier runs", killed);
+        }
+    }
+
+    /**
+     * Records the service process that the just-launched driver started and the browser processes under it.
+     */
+    static void track(WebDriver driver, DriverService service) {
+        Pattern portArgument = Pattern.compile("--port[= ]" + service.getUrl().getPort() + "\\b");
+        Optional<ProcessHandle> serviceProcess = self.children()
+                .filter(child -> portArgument.matcher(commandLine(child)).find())
+                .findFirst();
+        if (!serviceProcess.isPresent()) {
+            logger.debug("No driver service process found on port {}; session not tracked", service.getUrl().getPort());
+            return;
+        }
+        synchronized (services) {
+            services.values().removeIf(process -> !process.isAlive());
+            services.put(unwrap(driver), serviceProcess.get());
+        }
+        if (enabled) {
+            List<Entry> launched = new ArrayList<>();
+            Entry.of(serviceProcess.get()).ifPresent(launched::add);
+            serviceProcess.get().descendants().map(Entry::of).forEach(entry -> entry.ifPresent(launched::add));
+            updatePidFile(entries -> {
+                List<Entry> kept = entries.stream().filter(entry -> entry.find().isPresent()).collect(Collectors.toList());
+                kept.addAll(launched);
+                return kept;
+            });
+        }
+    }
+
+    /**
+     * Kills the driver service and browser processes of one session. Returns the number of processes killed.
+     */
+    public static int kill(WebDriver driver) {
+        ProcessHandle service = services.remove(unwrap(driver));
+        return service == null || !service.isAlive() ? 0 : destroyTree(service);
+    }
+
+    /**
+     * Kills every process this run started that is still alive and drops this run's entries from the PID file.
+     */
+    public static void killLeftovers() {
+        if (!enabled || !Files.exists(pidFile)) {
+            return;
+        }
+        List<Entry> own = new ArrayList<>();
+        updatePidFile(entries -> {
+            List<Entry> kept = new ArrayList<>();
+            for (Entry entry : entries) {
+                if (entry.isOwnedBy(self)) {
+                    own.add(entry);
+                } else {
+                    kept.add(entry);
+                }
+            }
+            return kept;
+        });
+        int killed = 0;
+        for (Entry entry : own) {
+            Optional<ProcessHandle> process = entry.find();
+            if (process.isPresent()) {
+                killed += destroyTree(process.get());
+            }
+        }
+        services.clear();
+        leftoversKilled.addAndGet(killed);
+        if (killed > 0) {
+            logger.warn("Killed {} browser processes still running after their sessions ended", killed);
+        }
+    }
+
+    public static int getOrphansKilled() {
+        return orphansKilled.get();
+    }
+
+    public static int getLeftoversKilled() {
+        return leftoversKilled.get();
+    }
+
+    /**
+     * Asks the process and its descendants to exit, then forcibly kills any still alive after reaper.graceMillis.
+     */
+    private static int destroyTree(ProcessHandle root) {
+        List<ProcessHandle> tree = root.descendants().collect(Collectors.toList());
+        tree.add(root);
+        tree.forEach(ProcessHandle::destroy);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(graceMillis);
+        int killed = 0;
+        for (ProcessHandle process : tree) {
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                process.onExit().get(remaining, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                process.destroyForcibly();
+            }
+            killed++;
+        }
+        return killed;
+    }
+
+    private static WebDriver unwrap(WebDriver driver) {
+        return driver instanceof WrapsDriver ? ((WrapsDriver) driver).getWrappedDriver() : driver;
+    }
+
+    private static String commandLine(ProcessHandle process) {
+        ProcessHandle.Info info = process.info();
+        return info.command().orElse("") + " " + String.join(" ", info.arguments().orElse(new String[0]));
+    }
+
+    /**
+     * Reads, rewrites and writes the PID file under an exclusive lock, so parallel runs of the workspace do not
+     * lose each other's entries.
+     */
+    private static synchronized void updatePidFile(UnaryOperator<List<Entry>> update) {
+        try {
+            if (pidFile.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(pidFile.toAbsolutePath().getParent());
+            }
+            try (FileChannel channel = FileChannel.open(pidFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    rewrite(channel, update);
+                } finally {
+                    lock.release();
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to update browser PID file {}: {}", pidFile, e.getMessage());
+        }
+    }
+
+    private static void rewrite(FileChannel channel, UnaryOperator<List<Entry>> update) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+        channel.read(buffer, 0);
+        List<Entry> entries = new ArrayList<>();
+        for (String line : new String(buffer.array(), StandardCharsets.UTF_8).split("\\R")) {
+            Entry.parse(line).ifPresent(entries::add);
+        }
+        StringBuilder content = new StringBuilder();
+        for (Entry entry : update.apply(entries)) {
+            content.append(entry).append('\n');
+        }
+        channel.truncate(0);
+        channel.write(ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8)), 0);
+    }
+
+    /**
+     * One line of the PID file: owner JVM PID and start, process PID and start (epoch millis), command.
+     */
+    private static class Entry {
+        private final long ownerPid;
+        private final long ownerStart;
+        private final long pid;
+        private final long start;
+        private final String command;
+
+        private Entry(long ownerPid, long ownerStart, long pid, long start, String command) {
+            this.ownerPid = ownerPid;
+            this.ownerStart = ownerStart;
+            this.pid = pid;
+            this.start = start;
+            this.command = command;
+        }
+
+        static Optional<Entry> of(ProcessHandle process) {
+            Optional<Instant> start = process.info().startInstant();
+            Optional<Instant> ownerStart = self.info().startInstant();
+            if (!start.isPresent() || !ownerStart.isPresent()) {
+                return Optional.empty();
+            }
+            return Optional.of(new Entry(self.pid(), ownerStart.get().toEpochMilli(), process.pid(),
+                    start.get().toEpochMilli(), process.info().command().orElse("?")));
+        }
+
+        static Optional<Entry> parse(String line) {
+            String[] fields = line.trim().split(" ", 5);
+            if (fields.length < 5) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(new Entry(Long.parseLong(fields[0]), Long.parseLong(fields[1]),
+                        Long.parseLong(fields[2]), Long.parseLong(fields[3]), fields[4]));
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        }
+
+        /**
+         * The recorded process if it is still running; empty if it exited or its PID now belongs to another process.
+         */
+        Optional<ProcessHandle> find() {
+            return ProcessHandle.of(pid).filter(process -> startedAt(process, start));
+        }
+
+        boolean isOwnerAlive() {
+            return ProcessHandle.of(ownerPid).filter(owner -> startedAt(owner, ownerStart)).isPresent();
+        }
+
+        boolean isOwnedBy(ProcessHandle owner) {
+            return owner.pid() == ownerPid && startedAt(owner, ownerStart);
+        }
+
+        private static boolean startedAt(ProcessHandle process, long epochMillis) {
+            return process.isAlive() && process.info().startInstant()
+                    .map(instant -> instant.toEpochMilli() == epochMillis).orElse(false);
+        }
+
+        @Override
+        public String toString() {
+            return ownerPid + " " + ownerStart + " " + pid + " " + start + " " + command;
+        }
+    }
+}
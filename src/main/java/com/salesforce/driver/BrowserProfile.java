@@ -0,0 +1,51 @@
+package com.salesforce.driver;
+
+import com.salesforce.utils.ConfigReader;
+
+/**
+ * Browser launch profile (browser.profile). HEADED is a visible, maximized browser with the default page-load
+ * strategy; FAST is headless with the eager page-load strategy, images, extensions and GPU disabled, a fixed
+ * window size (profile.fast.windowSize) and a reused profile directory on tmpfs (see {@link ProfileDirectories}).
+ * A suite can pick its profile with a browser.profile suite parameter; -Dbrowser.profile still wins.
+ */
+public enum BrowserProfile {
+    HEADED,
+    FAST;
+
+    private static volatile BrowserProfile current = fromConfig();
+
+    public static BrowserProfile fromConfig() {
+        return parse(ConfigReader.getProperty("browser.profile", "headed"));
+    }
+
+    public static BrowserProfile current() {
+        return current;
+    }
+
+    /**
+     * Applies a suite's browser.profile parameter unless the profile was set on the command line.
+     */
+    public static void selectForSuite(String suiteParameter) {
+        if (suiteParameter != null && !suiteParameter.trim().isEmpty() && System.getProperty("browser.profile") == null) {
+            current = parse(suiteParameter.trim());
+        }
+    }
+
+    public static int[] getWindowSize() {
+        String value = ConfigReader.getProperty("profile.fast.windowSize", "1366x768");
+        String[] parts = value.toLowerCase().split("x");
+        try {
+            return new int[]{Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim())};
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid profile.fast.windowSize: " + value + " (expected WIDTHxHEIGHT)");
+        }
+    }
+
+    private static BrowserProfile parse(String value) {
+        try {
+            return valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported browser.profile: " + value + " (expected headed or fast)");
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.salesforce.driver;
+
+import com.salesforce.utils.CommandLatency;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Times every call made through a decorated driver, including calls on the elements, navigation, options and
+ * windows it hands out, and records them in {@link CommandLatency} as "Interface.method".
+ */
+public class CommandLatencyListener implements WebDriverListener {
+    private static final ThreadLocal<Deque<Long>> startTimes = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        startTimes.get().push(System.nanoTime());
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        stop(method);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        stop(method);
+    }
+
+    private static void stop(Method method) {
+        Long startNanos = startTimes.get().poll();
+        if (startNanos != null) {
+            CommandLatency.record(method.getDeclaringClass().getSimpleName() + "." + method.getName(), System.nanoTime() - startNanos);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.salesforce.driver;
+
+import com.salesforce.utils.ConfigReader;
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Resolves each browser's driver binary once per JVM and exports it as the Selenium system property.
+ * With wdm.offline=true the binary is taken from the on-disk cache only and no network call is made.
+ */
+public class DriverBinaryResolver {
+    private static final Logger logger = LogManager.getLogger(DriverBinaryResolver.class);
+    private static final Map<String, String> resolvedPaths = new ConcurrentHashMap<>();
+
+    public static void resolve(String browser) {
+        if ("safari".equals(browser)) {
+            return;
+        }
+        resolvedPaths.computeIfAbsent(browser, DriverBinaryResolver::resolveOnce);
+    }
+
+    private static String resolveOnce(String browser) {
+        String systemProperty = driverSystemProperty(browser);
+        String preset = System.getProperty(systemProperty);
+        if (preset != null && Files.isExecutable(Paths.get(preset))) {
+            logger.info("Using preset " + systemProperty + ": " + preset);
+            return preset;
+        }
+        long startNanos = System.nanoTime();
+        String path = Boolean.parseBoolean(ConfigReader.getProperty("wdm.offline", "false"))
+                ? findCachedBinary(browser)
+                : downloadBinary(browser);
+        System.setProperty(systemProperty, path);
+        logger.info("Resolved " + browser + " driver in " + (System.nanoTime() - startNanos) / 1_000_000 + " ms: " + path);
+        return path;
+    }
+
+    private static String downloadBinary(String browser) {
+        WebDriverManager manager = WebDriverManager.getInstance(browser).useLocalCommandsPropertiesFirst();
+        String cachePath = ConfigReader.getProperty("wdm.cachePath", null);
+        if (cachePath != null) {
+            manager.cachePath(cachePath);
+        }
+        String driverVersion = pinnedVersion(browser);
+        if (driverVersion != null) {
+            manager.driverVersion(driverVersion);
+        }
+        manager.setup();
+        return manager.getDownloadedDriverPath();
+    }
+
+    private static String findCachedBinary(String browser) {
+        String driverName = driverName(browser);
+        String cachePath = ConfigReader.getProperty("wdm.cachePath",
+                Paths.get(System.getProperty("user.home"), ".cache", "selenium").toString());
+        Path driverRoot = Paths.get(cachePath, driverName);
+        String driverVersion = pinnedVersion(browser);
+        try (Stream<Path> files = Files.walk(driverRoot)) {
+            Optional<Path> binary = files
+                    .filter(path -> isDriverBinary(path, driverName))
+                    .filter(path -> driverVersion == null || path.getParent().getFileName().toString().equals(driverVersion))
+                    .max(Comparator.comparing(path -> path.getParent().getFileName().toString(), DriverBinaryResolver::compareVersions));
+            if (binary.isPresent()) {
+                return binary.get().toString();
+            }
+        } catch (IOException e) {
+            logger.error("Failed to scan driver cache " + driverRoot + ": " + e.getMessage());
+        }
+        throw new IllegalStateException("wdm.offline is set but no " + driverName
+                + (driverVersion != null ? " " + driverVersion : "") + " binary was found under " + driverRoot);
+    }
+
+    private static boolean isDriverBinary(Path path, String driverName) {
+        String fileName = path.getFileName().toString();
+        return (fileName.equals(driverName) || fileName.equals(driverName + ".exe")) && Files.isRegularFile(path);
+    }
+
+    private static int compareVersions(String left, String right) {
+        String[] leftParts = left.split("\\.");
+        String[] rightParts = right.split("\\.");
+        for (int i = 0; i < Math.max(leftParts.length, rightParts.length); i++) {
+            int leftPart = i < leftParts.length ? parseVersionPart(leftParts[i]) : 0;
+            int rightPart = i < rightParts.length ? parseVersionPart(rightParts[i]) : 0;
+            if (leftPart != rightPart) {
+                return Integer.compare(leftPart, rightPart);
+            }
+        }
+        return 0;
+    }
+
+    private static int parseVersionPart(String part) {
+        try {
+            return Integer.parseInt(part);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static String pinnedVersion(String browser) {
+        return ConfigReader.getProperty("wdm.driverVersion." + browser, null);
+    }
+
+    private static String driverName(String browser) {
+        switch (browser) {
+            case "chrome":
+                return "chromedriver";
+            case "firefox":
+                return "geckodriver";
+            case "edge":
+                return "msedgedriver";
+            default:
+                throw new IllegalArgumentException("Unsupported browser: " + browser);
+        }
+    }
+
+    private static String driverSystemProperty(String browser) {
+        switch (browser) {
+            case "chrome":
+                return "webdriver.chrome.driver";
+            case "firefox":
+                return "webdriver.gecko.driver";
+            case "edge":
+                return "webdriver.edge.driver";
+            default:
+                throw new IllegalArgumentException("Unsupported browser: " + browser);
+        }
+    }
+}
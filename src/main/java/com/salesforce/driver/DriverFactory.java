@@ -0,0 +1,174 @@
+package com.salesforce.driver;
+
+import com.salesforce.utils.CommandLatency;
+import com.salesforce.utils.ConfigReader;
+import com.salesforce.utils.LatencyHistogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeDriverService;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.remote.service.DriverService;
+import org.openqa.selenium.safari.SafariDriver;
+import org.openqa.selenium.safari.SafariDriverService;
+import org.openqa.selenium.safari.SafariOptions;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class DriverFactory {
+    private static final Logger logger = LogManager.getLogger(DriverFactory.class);
+    private static final LatencyHistogram startupTimes = new LatencyHistogram();
+    private static final LatencyHistogram startPageLoadTimes = new LatencyHistogram();
+
+    /**
+     * Launches a session for the browser with the current {@link BrowserProfile}, wrapped for command latency
+     * recording unless latency.enabled=false and for {@link ResourceBlocker} network interception when enabled.
+     * The session's driver service and browser processes are registered with {@link BrowserProcesses}.
+     */
+    public static WebDriver createDriver(String browser) {
+        BrowserProcesses.reapOrphans();
+        BrowserProfile profile = BrowserProfile.current();
+        Path profileDir = profile == BrowserProfile.FAST && !"safari".equals(browser) ? ProfileDirectories.lease(browser) : null;
+        long startNanos = System.nanoTime();
+        DriverService service;
+        WebDriver driver;
+        try {
+            service = createService(browser);
+            driver = launch(browser, profile, profileDir, service);
+        } catch (RuntimeException e) {
+            if (profileDir != null) {
+                ProfileDirectories.release(browser, profileDir);
+            }
+            throw e;
+        }
+        startupTimes.record(System.nanoTime() - startNanos);
+        BrowserProcesses.track(driver, service);
+
+        List<WebDriverListener> listeners = new ArrayList<>();
+        if (CommandLatency.isEnabled()) {
+            listeners.add(new CommandLatencyListener());
+        }
+        if (ResourceBlocker.isEnabled()) {
+            ResourceBlocker blocker = ResourceBlocker.install(browser, driver);
+            if (blocker != null) {
+                listeners.add(blocker);
+            }
+        }
+        if (profileDir != null) {
+            listeners.add(ProfileDirectories.releaseOnQuit(browser, profileDir));
+        }
+        return listeners.isEmpty() ? driver
+                : new EventFiringDecorator<>(listeners.toArray(new WebDriverListener[0])).decorate(driver);
+    }
+
+    /**
+     * Builds the driver service explicitly rather than letting the driver do it, so its port is known and
+     * its process can be found for {@link BrowserProcesses}.
+     */
+    private static DriverService createService(String browser) {
+        DriverBinaryResolver.resolve(browser);
+        switch (browser) {
+            case "chrome":
+                return ChromeDriverService.createDefaultService();
+            case "firefox":
+                return GeckoDriverService.createDefaultService();
+            case "edge":
+                return EdgeDriverService.createDefaultService();
+            case "safari":
+                return SafariDriverService.createDefaultService();
+            default:
+                throw new IllegalArgumentException("Unsupported browser: " + browser);
+        }
+    }
+
+    private static WebDriver launch(String browser, BrowserProfile profile, Path profileDir, DriverService service) {
+        logger.info("Initializing browser: {} ({} profile)", browser, profile);
+        switch (browser) {
+            case "chrome":
+                ChromeOptions chromeOptions = new ChromeOptions();
+                chromeOptions.addArguments("--disable-notifications");
+                chromeOptions.addArguments("--disable-popup-blocking");
+                if (profile == BrowserProfile.FAST) {
+                    applyFastProfile(chromeOptions, profileDir);
+                }
+                return new ChromeDriver((ChromeDriverService) service, chromeOptions);
+            case "firefox":
+                FirefoxOptions firefoxOptions = new FirefoxOptions();
+                firefoxOptions.addPreference("dom.webnotifications.enabled", false);
+                if (profile == BrowserProfile.FAST) {
+                    applyFastProfile(firefoxOptions, profileDir);
+                }
+                return new FirefoxDriver((GeckoDriverService) service, firefoxOptions);
+            case "edge":
+                EdgeOptions edgeOptions = new EdgeOptions();
+                edgeOptions.addArguments("--disable-notifications");
+                if (profile == BrowserProfile.FAST) {
+                    applyFastProfile(edgeOptions, profileDir);
+                }
+                return new EdgeDriver((EdgeDriverService) service, edgeOptions);
+            case "safari":
+                SafariOptions safariOptions = new SafariOptions();
+                if (profile == BrowserProfile.FAST) {
+                    logger.warn("Safari has no headless mode; the fast profile only applies the eager page-load strategy");
+                    safariOptions.setPageLoadStrategy(PageLoadStrategy.EAGER);
+                }
+                return new SafariDriver((SafariDriverService) service, safariOptions);
+            default:
+                throw new IllegalArgumentException("Unsupported browser: " + browser);
+        }
+    }
+
+    private static void applyFastProfile(ChromiumOptions<?> options, Path profileDir) {
+        int[] windowSize = BrowserProfile.getWindowSize();
+        options.setPageLoadStrategy(PageLoadStrategy.EAGER);
+        options.addArguments("--headless=new", "--window-size=" + windowSize[0] + "," + windowSize[1],
+                "--disable-gpu", "--disable-extensions", "--blink-settings=imagesEnabled=false",
+                "--no-first-run", "--no-default-browser-check", "--disable-dev-shm-usage",
+                "--user-data-dir=" + profileDir.toAbsolutePath());
+    }
+
+    private static void applyFastProfile(FirefoxOptions options, Path profileDir) {
+        int[] windowSize = BrowserProfile.getWindowSize();
+        options.setPageLoadStrategy(PageLoadStrategy.EAGER);
+        options.addArguments("-headless", "--width=" + windowSize[0], "--height=" + windowSize[1],
+                "-profile", profileDir.toAbsolutePath().toString());
+        options.addPreference("permissions.default.image", 2);
+        options.addPreference("layers.acceleration.disabled", true);
+        options.addPreference("gfx.webrender.software", true);
+        options.addPreference("extensions.enabledScopes", 0);
+    }
+
+    /**
+     * Sizes the window for the profile (maximized for HEADED; FAST already launches at its fixed size) and
+     * loads the start URL, recording how long the load took.
+     */
+    public static void openStartPage(WebDriver driver) {
+        if (BrowserProfile.current() == BrowserProfile.HEADED) {
+            driver.manage().window().maximize();
+        }
+        long startNanos = System.nanoTime();
+        driver.get(ConfigReader.getUrl());
+        startPageLoadTimes.record(System.nanoTime() - startNanos);
+    }
+
+    public static LatencyHistogram getStartupTimes() {
+        return startupTimes;
+    }
+
+    public static LatencyHistogram getStartPageLoadTimes() {
+        return startPageLoadTimes;
+    }
+}
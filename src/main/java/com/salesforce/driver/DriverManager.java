@@ -0,0 +1,30 @@
+package com.salesforce.driver;
+
+import com.salesforce.utils.Waiter;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Holds the browser session confined to the current test thread.
+ */
+public class DriverManager {
+    private static final ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+    private static final ThreadLocal<Waiter> wait = new ThreadLocal<>();
+
+    public static void setDriver(WebDriver webDriver, Waiter waiter) {
+        driver.set(webDriver);
+        wait.set(waiter);
+    }
+
+    public static WebDriver getDriver() {
+        return driver.get();
+    }
+
+    public static Waiter getWait() {
+        return wait.get();
+    }
+
+    public static void unload() {
+        driver.remove();
+        wait.remove();
+    }
+}
@@ -0,0 +1,227 @@
+package com.salesforce.driver;
+
+import com.salesforce.utils.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * Bounded pool of browser sessions shared by all test threads.
+ * A session is borrowed by exactly one thread at a time and must be released by that thread.
+ * Sessions released with a reuse scope are reset and parked for the next borrower of that scope;
+ * parked sessions keep their slot until the scope is closed or the slot is needed elsewhere.
+ * Every borrowed session is maximized and already at the configured start URL.
+ */
+public class DriverPool {
+    private static final Logger logger = LogManager.getLogger(DriverPool.class);
+    private static final int poolSize = ConfigReader.getPoolSize();
+    private static final Semaphore slots = new Semaphore(poolSize, true);
+    private static final Set<WebDriver> borrowed = ConcurrentHashMap.newKeySet();
+    private static final Map<String, Deque<WebDriver>> idle = new ConcurrentHashMap<>();
+    private static final AtomicInteger launches = new AtomicInteger();
+    private static final AtomicInteger launchesSaved = new AtomicInteger();
+    private static final ThreadLocal<SessionSource> lastSource = new ThreadLocal<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverPool::shutdown, "driver-pool-shutdown"));
+    }
+
+    public static int getPoolSize() {
+        return poolSize;
+    }
+
+    public static int getLaunchCount() {
+        return launches.get();
+    }
+
+    public static int getLaunchesSaved() {
+        return launchesSaved.get();
+    }
+
+    public static SessionSource getLastBorrowSource() {
+        return lastSource.get();
+    }
+
+    public static WebDriver borrow() {
+        return borrow(null);
+    }
+
+    public static WebDriver borrow(String scopeKey) {
+        WebDriver driver = takeIdle(scopeKey);
+        if (driver != null) {
+            launchesSaved.incrementAndGet();
+            lastSource.set(SessionSource.REUSED);
+            borrowed.add(driver);
+            return driver;
+        }
+        acquireSlot();
+        try {
+            driver = launchHealthyDriver();
+            borrowed.add(driver);
+            return driver;
+        } catch (RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+    }
+
+    public static void release(WebDriver driver) {
+        release(driver, null);
+    }
+
+    public static void release(WebDriver driver, String scopeKey) {
+        if (driver == null || !borrowed.remove(driver)) {
+            return;
+        }
+        if (scopeKey != null && SessionReset.reset(driver, ConfigReader.getUrl())) {
+            idle.computeIfAbsent(scopeKey, key -> new ConcurrentLinkedDeque<>()).offerFirst(driver);
+            return;
+        }
+        discard(driver);
+    }
+
+    public static void closeScope(String scopeKey) {
+        Deque<WebDriver> sessions = idle.remove(scopeKey);
+        if (sessions == null) {
+            return;
+        }
+        WebDriver driver;
+        while ((driver = sessions.pollFirst()) != null) {
+            discard(driver);
+        }
+    }
+
+    public static boolean isHealthy(WebDriver driver) {
+        try {
+            WebDriver target = driver instanceof WrapsDriver ? ((WrapsDriver) driver).getWrappedDriver() : driver;
+            if (target instanceof RemoteWebDriver && ((RemoteWebDriver) target).getSessionId() == null) {
+                return false;
+            }
+            driver.getWindowHandle();
+            return true;
+        } catch (WebDriverException e) {
+            logger.warn("Health check failed for browser session: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    public static void shutdown() {
+        DriverWarmer.stop();
+        for (String scopeKey : idle.keySet()) {
+            closeScope(scopeKey);
+        }
+        for (WebDriver driver : borrowed) {
+            release(driver);
+        }
+        BrowserProcesses.killLeftovers();
+    }
+
+    private static WebDriver takeIdle(String scopeKey) {
+        Deque<WebDriver> sessions = scopeKey == null ? null : idle.get(scopeKey);
+        if (sessions == null) {
+            return null;
+        }
+        WebDriver driver;
+        while ((driver = sessions.pollFirst()) != null) {
+            if (isHealthy(driver)) {
+                logger.info("Reusing browser session for scope {}", scopeKey);
+                return driver;
+            }
+            logger.warn("Discarding unhealthy parked session for scope {}", scopeKey);
+            discard(driver);
+        }
+        return null;
+    }
+
+    private static void acquireSlot() {
+        if (slots.tryAcquire()) {
+            return;
+        }
+        evictIdleSession();
+        int timeoutSeconds = ConfigReader.getPoolBorrowTimeoutSeconds();
+        try {
+            if (!slots.tryAcquire(timeoutSeconds, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out after " + timeoutSeconds
+                        + "s waiting for a free browser session (pool.size=" + poolSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a free browser session", e);
+        }
+    }
+
+    private static void evictIdleSession() {
+        for (Deque<WebDriver> sessions : idle.values()) {
+            WebDriver driver = sessions.pollLast();
+            if (driver != null) {
+                discard(driver);
+                return;
+            }
+        }
+    }
+
+    private static WebDriver launchHealthyDriver() {
+        String browser = ConfigReader.getBrowser().toLowerCase();
+        WebDriver warm = DriverWarmer.poll(browser);
+        if (warm != null) {
+            launches.incrementAndGet();
+            if (isHealthy(warm)) {
+                lastSource.set(SessionSource.WARMED);
+                return warm;
+            }
+            logger.warn("Discarding unhealthy warm {} session", browser);
+            quitQuietly(warm);
+        }
+        int attempts = ConfigReader.getIntProperty("pool.launchAttempts", 2);
+        for (int attempt = 1; ; attempt++) {
+            WebDriver driver = DriverFactory.createDriver(browser);
+            launches.incrementAndGet();
+            if (isHealthy(driver)) {
+                try {
+                    DriverFactory.openStartPage(driver);
+                } catch (RuntimeException e) {
+                    quitQuietly(driver);
+                    throw e;
+                }
+                lastSource.set(SessionSource.LAUNCHED);
+                return driver;
+            }
+            quitQuietly(driver);
+            if (attempt >= attempts) {
+                throw new IllegalStateException("Browser session for " + browser
+                        + " failed its health check after " + attempts + " launch attempts");
+            }
+            logger.warn("Relaunching unhealthy {} session (attempt {} of {})", browser, box(attempt + 1), box(attempts));
+        }
+    }
+
+    private static void discard(WebDriver driver) {
+        try {
+            quitQuietly(driver);
+        } finally {
+            slots.release();
+        }
+    }
+
+    private static void quitQuietly(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (WebDriverException e) {
+            logger.warn("Failed to quit browser session: {}", e.getMessage());
+        }
+    }
+}
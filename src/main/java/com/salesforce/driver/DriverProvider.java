@@ -0,0 +1,14 @@
+package com.salesforce.driver;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Gives listeners the browser session of a running test without knowing the test class hierarchy.
+ * Implementations also bind the session to the test result under {@link #DRIVER_ATTRIBUTE}
+ * so it resolves to the right session whichever thread reports the result.
+ */
+public interface DriverProvider {
+    String DRIVER_ATTRIBUTE = "driver";
+
+    WebDriver getDriver();
+}
@@ -0,0 +1,101 @@
+package com.salesforce.driver;
+
+import com.salesforce.utils.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * Launches browser sessions in the background so borrowers find one already at the start page.
+ * The number of sessions kept ready is warmup.depth.&lt;browser&gt; (falling back to warmup.depth).
+ * Warm sessions are extra to pool.size; they do not hold a pool slot until borrowed.
+ */
+public class DriverWarmer {
+    private static final Logger logger = LogManager.getLogger(DriverWarmer.class);
+    private static final Map<String, BlockingQueue<WebDriver>> ready = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicInteger> launching = new ConcurrentHashMap<>();
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+    private static final ExecutorService launcher = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "driver-warmer-" + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static volatile boolean stopped;
+
+    public static int getDepth(String browser) {
+        return ConfigReader.getIntProperty("warmup.depth." + browser, ConfigReader.getIntProperty("warmup.depth", 0));
+    }
+
+    public static synchronized void start(String browser) {
+        stopped = false;
+        refill(browser);
+    }
+
+    public static WebDriver poll(String browser) {
+        BlockingQueue<WebDriver> queue = ready.get(browser);
+        WebDriver driver = queue == null ? null : queue.poll();
+        refill(browser);
+        return driver;
+    }
+
+    public static synchronized void stop() {
+        stopped = true;
+        for (BlockingQueue<WebDriver> queue : ready.values()) {
+            WebDriver driver;
+            while ((driver = queue.poll()) != null) {
+                quitQuietly(driver);
+            }
+        }
+    }
+
+    private static synchronized void refill(String browser) {
+        int depth = getDepth(browser);
+        if (stopped || depth <= 0) {
+            return;
+        }
+        BlockingQueue<WebDriver> queue = ready.computeIfAbsent(browser, key -> new LinkedBlockingQueue<>());
+        AtomicInteger pending = launching.computeIfAbsent(browser, key -> new AtomicInteger());
+        while (queue.size() + pending.get() < depth) {
+            pending.incrementAndGet();
+            launcher.execute(() -> warmOne(browser, queue, pending));
+        }
+    }
+
+    private static void warmOne(String browser, BlockingQueue<WebDriver> queue, AtomicInteger pending) {
+        try {
+            WebDriver driver = DriverFactory.createDriver(browser);
+            DriverFactory.openStartPage(driver);
+            synchronized (DriverWarmer.class) {
+                if (stopped) {
+                    quitQuietly(driver);
+                    return;
+                }
+                queue.offer(driver);
+            }
+            logger.info("Warm {} session ready ({} of {})", browser, box(queue.size()), box(getDepth(browser)));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to warm up {} session: {}", browser, e.getMessage());
+        } finally {
+            pending.decrementAndGet();
+        }
+    }
+
+    private static void quitQuietly(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (WebDriverException e) {
+            logger.warn("Failed to quit warm browser session: {}", e.getMessage());
+        }
+    }
+}
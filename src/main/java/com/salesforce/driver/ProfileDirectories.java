@@ -0,0 +1,149 @@
+package com.salesforce.driver;
+
+import com.salesforce.utils.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+
+/**
+ * Browser profile directories for the FAST profile, kept under profile.dir (default /dev/shm when it is
+ * writable) and reused across sessions instead of creating a fresh profile on disk per launch. A directory is
+ * leased to one running browser at a time; before each lease its session state (cookies, storage, locks) is
+ * deleted while the HTTP, code and shader caches are kept. The base folder is shared by every JVM on the host,
+ * so each directory is claimed through an exclusive lock on its &lt;name&gt;.lock file, held until the JVM exits;
+ * a directory locked by another run is skipped.
+ */
+public class ProfileDirectories {
+    private static final Logger logger = LogManager.getLogger(ProfileDirectories.class);
+    private static final Set<String> KEPT_CACHES = new HashSet<>(Arrays.asList(
+            "Cache", "Code Cache", "GPUCache", "GrShaderCache", "ShaderCache", "cache2", "startupCache"));
+    private static final Path baseDir = resolveBaseDir();
+    private static final Map<String, Queue<Path>> free = new ConcurrentHashMap<>();
+    private static final Set<Path> leased = ConcurrentHashMap.newKeySet();
+    private static final Map<Path, FileLock> claimed = new ConcurrentHashMap<>();
+
+    public static Path lease(String browser) {
+        Path dir = free.computeIfAbsent(browser, key -> new ConcurrentLinkedQueue<>()).poll();
+        try {
+            if (dir == null) {
+                dir = claimDirectory(browser);
+            }
+            Files.createDirectories(dir);
+            clearSessionState(dir);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to prepare browser profile directory " + dir + ": " + e.getMessage(), e);
+        }
+        leased.add(dir);
+        return dir;
+    }
+
+    public static void release(String browser, Path dir) {
+        if (leased.remove(dir)) {
+            free.computeIfAbsent(browser, key -> new ConcurrentLinkedQueue<>()).offer(dir);
+        }
+    }
+
+    /**
+     * Returns the directory to the free list once the browser using it has quit (or failed to).
+     */
+    static WebDriverListener releaseOnQuit(String browser, Path dir) {
+        return new WebDriverListener() {
+            @Override
+            public void afterQuit(WebDriver driver) {
+                release(browser, dir);
+            }
+
+            @Override
+            public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+                if ("quit".equals(method.getName())) {
+                    release(browser, dir);
+                }
+            }
+        };
+    }
+
+    /**
+     * Claims the first &lt;browser&gt;-N directory that neither this JVM nor another one holds.
+     */
+    private static synchronized Path claimDirectory(String browser) throws IOException {
+        Files.createDirectories(baseDir);
+        for (int index = 1; ; index++) {
+            Path dir = baseDir.resolve(browser + "-" + index);
+            if (claimed.containsKey(dir)) {
+                continue;
+            }
+            FileChannel channel = FileChannel.open(baseDir.resolve(browser + "-" + index + ".lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock lock = channel.tryLock();
+            if (lock == null) {
+                channel.close();
+                continue;
+            }
+            claimed.put(dir, lock);
+            return dir;
+        }
+    }
+
+    private static void clearSessionState(Path dir) throws IOException {
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path path, BasicFileAttributes attributes) {
+                return KEPT_CACHES.contains(String.valueOf(path.getFileName())) ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path path, IOException e) throws IOException {
+                if (!path.equals(dir) && isEmpty(path)) {
+                    Files.delete(path);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static boolean isEmpty(Path dir) throws IOException {
+        try (Stream<Path> entries = Files.list(dir)) {
+            return !entries.findAny().isPresent();
+        }
+    }
+
+    private static Path resolveBaseDir() {
+        String configured = ConfigReader.getProperty("profile.dir", "");
+        if (!configured.isEmpty()) {
+            return Paths.get(configured);
+        }
+        Path shm = Paths.get("/dev/shm");
+        Path root = Files.isDirectory(shm) && Files.isWritable(shm) ? shm : Paths.get(System.getProperty("java.io.tmpdir"));
+        Path dir = root.resolve("salesforce-automation-profiles");
+        logger.info("Browser profile directories: " + dir);
+        return dir;
+    }
+}
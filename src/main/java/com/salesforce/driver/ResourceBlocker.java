@@ -0,0 +1,300 @@
+package com.salesforce.driver;
+
+import com.salesforce.utils.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Intercepts a Chromium session's network traffic over DevTools: requests matching network.block.patterns
+ * (and not network.allow.patterns) are answered with an empty 204, and GETs matching network.cache.patterns
+ * are served from the {@link AssetCache} when enabled. Savings are tracked per page load, a window that starts
+ * at each {@code get}/{@code navigate().to}, and for the whole run.
+ */
+public class ResourceBlocker implements WebDriverListener {
+    private static final Logger logger = LogManager.getLogger(ResourceBlocker.class);
+    private static final boolean blockEnabled = Boolean.parseBoolean(ConfigReader.getProperty("network.block.enabled", "false"));
+    private static final boolean cacheEnabled = Boolean.parseBoolean(ConfigReader.getProperty("network.cache.enabled", "false"));
+    private static final List<Pattern> blockPatterns = globs(ConfigReader.getProperty("network.block.patterns", ""));
+    private static final List<Pattern> allowPatterns = globs(ConfigReader.getProperty("network.allow.patterns", ""));
+    private static final List<Pattern> cachePatterns = globs(ConfigReader.getProperty("network.cache.patterns", "*.js,*.js?*,*.css,*.css?*"));
+    private static final Map<WebDriver, ResourceBlocker> installed = new ConcurrentHashMap<>();
+    private static final PageLoad runTotals = new PageLoad("run");
+    private static final LongAdder pageLoadCount = new LongAdder();
+
+    private final WebDriver driver;
+    private final NetworkInterceptor interceptor;
+    private final List<PageLoad> pageLoads = new ArrayList<>();
+    private PageLoad current;
+    private String lastUrl = "(before first navigation)";
+
+    private ResourceBlocker(WebDriver driver) {
+        this.driver = driver;
+        this.interceptor = new NetworkInterceptor(driver, (Filter) next -> request -> handle(request, next));
+    }
+
+    public static boolean isEnabled() {
+        return blockEnabled || cacheEnabled;
+    }
+
+    /**
+     * Starts intercepting on a freshly launched, undecorated driver and returns the blocker to decorate it with,
+     * or null when interception is not available; blocking then falls back to the CDP blocklist (no allow
+     * patterns, cache or stats) where the browser supports it.
+     */
+    static ResourceBlocker install(String browser, WebDriver driver) {
+        if (!(driver instanceof HasDevTools)) {
+            logger.warn("Resource blocking needs Chrome DevTools and is not available for {}", browser);
+            return null;
+        }
+        try {
+            ResourceBlocker blocker = new ResourceBlocker(driver);
+            installed.put(driver, blocker);
+            return blocker;
+        } catch (RuntimeException e) {
+            logger.warn("Network interception unavailable for {}: {}", browser, e.getMessage());
+        }
+        if (blockEnabled && driver instanceof HasCdp) {
+            try {
+                HasCdp cdp = (HasCdp) driver;
+                cdp.executeCdpCommand("Network.enable", Collections.emptyMap());
+                Map<String, Object> params = new HashMap<>();
+                params.put("urls", Arrays.asList(ConfigReader.getProperty("network.block.patterns", "").split("\\s*,\\s*")));
+                cdp.executeCdpCommand("Network.setBlockedURLs", params);
+                logger.info("Blocking resources with the CDP blocklist; allow patterns, caching and savings stats are off");
+            } catch (RuntimeException e) {
+                logger.warn("Failed to set the CDP blocklist: {}", e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the blocker intercepting the driver (decorated or not), or null if there is none.
+     */
+    public static ResourceBlocker forDriver(WebDriver driver) {
+        while (driver instanceof WrapsDriver) {
+            driver = ((WrapsDriver) driver).getWrappedDriver();
+        }
+        return driver == null ? null : installed.get(driver);
+    }
+
+    /**
+     * Returns the page loads recorded since the last call, including the one still in progress, which is
+     * closed so later requests start a new window.
+     */
+    public synchronized List<PageLoad> takePageLoads() {
+        if (current != null) {
+            pageLoads.add(current);
+            current = null;
+        }
+        List<PageLoad> taken = new ArrayList<>(pageLoads);
+        pageLoads.clear();
+        return taken;
+    }
+
+    public static PageLoad getRunTotals() {
+        return runTotals;
+    }
+
+    public static long getPageLoadCount() {
+        return pageLoadCount.sum();
+    }
+
+    @Override
+    public void beforeGet(WebDriver driver, String url) {
+        startPageLoad(url);
+    }
+
+    @Override
+    public void beforeTo(WebDriver.Navigation navigation, String url) {
+        startPageLoad(url);
+    }
+
+    @Override
+    public void beforeQuit(WebDriver driver) {
+        close();
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        if ("quit".equals(method.getName())) {
+            close();
+        }
+    }
+
+    private synchronized void startPageLoad(String url) {
+        if (current != null) {
+            pageLoads.add(current);
+        }
+        lastUrl = url;
+        current = new PageLoad(url);
+        pageLoadCount.increment();
+    }
+
+    private synchronized PageLoad currentPageLoad() {
+        if (current == null) {
+            current = new PageLoad(lastUrl);
+        }
+        return current;
+    }
+
+    private HttpResponse handle(HttpRequest request, HttpHandler next) {
+        String url = request.getUri();
+        PageLoad pageLoad = currentPageLoad();
+        if (blockEnabled && matchesAny(blockPatterns, url) && !matchesAny(allowPatterns, url)) {
+            long knownSize = AssetCache.knownSize(url);
+            pageLoad.recordBlocked(knownSize);
+            runTotals.recordBlocked(knownSize);
+            return new HttpResponse().setStatus(204);
+        }
+        boolean cacheable = cacheEnabled && request.getMethod() == HttpMethod.GET && matchesAny(cachePatterns, url);
+        if (cacheable) {
+            HttpResponse cached = AssetCache.lookup(url);
+            if (cached != null) {
+                long size = Long.parseLong(cached.getHeader("Content-Length"));
+                pageLoad.recordCached(size);
+                runTotals.recordCached(size);
+                return cached;
+            }
+        }
+        HttpResponse response = next.execute(request);
+        byte[] body = Contents.bytes(response.getContent());
+        response.setContent(Contents.bytes(body));
+        AssetCache.recordSize(url, body.length);
+        pageLoad.recordLoaded(body.length);
+        runTotals.recordLoaded(body.length);
+        if (cacheable && response.getStatus() == 200) {
+            AssetCache.store(url, response, body);
+        }
+        return response;
+    }
+
+    private void close() {
+        if (installed.remove(driver) == null) {
+            return;
+        }
+        try {
+            interceptor.close();
+        } catch (RuntimeException e) {
+            logger.debug("Failed to remove network interceptor: {}", e.getMessage());
+        }
+        AssetCache.saveSizes();
+    }
+
+    private static boolean matchesAny(List<Pattern> patterns, String url) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(url).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compiles comma-separated URL globs where {@code *} matches any run of characters, the same syntax as the
+     * CDP blocklist.
+     */
+    static List<Pattern> globs(String patterns) {
+        return Arrays.stream(patterns.split(","))
+                .map(String::trim)
+                .filter(glob -> !glob.isEmpty())
+                .map(glob -> Pattern.compile(Arrays.stream(glob.split("\\*", -1)).map(Pattern::quote).collect(Collectors.joining(".*"))))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Requests and bytes blocked, served from cache and loaded from the network during one page load. Blocked
+     * bytes only count URLs whose size is known from an earlier unblocked fetch.
+     */
+    public static class PageLoad {
+        private final String url;
+        private final LongAdder blockedRequests = new LongAdder();
+        private final LongAdder blockedBytes = new LongAdder();
+        private final LongAdder cachedRequests = new LongAdder();
+        private final LongAdder cachedBytes = new LongAdder();
+        private final LongAdder loadedRequests = new LongAdder();
+        private final LongAdder loadedBytes = new LongAdder();
+
+        PageLoad(String url) {
+            this.url = url;
+        }
+
+        void recordBlocked(long knownSize) {
+            blockedRequests.increment();
+            if (knownSize > 0) {
+                blockedBytes.add(knownSize);
+            }
+        }
+
+        void recordCached(long size) {
+            cachedRequests.increment();
+            cachedBytes.add(size);
+        }
+
+        void recordLoaded(long size) {
+            loadedRequests.increment();
+            loadedBytes.add(size);
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public long getBlockedRequests() {
+            return blockedRequests.sum();
+        }
+
+        public long getBlockedBytes() {
+            return blockedBytes.sum();
+        }
+
+        public long getCachedRequests() {
+            return cachedRequests.sum();
+        }
+
+        public long getCachedBytes() {
+            return cachedBytes.sum();
+        }
+
+        public long getLoadedRequests() {
+            return loadedRequests.sum();
+        }
+
+        public long getLoadedBytes() {
+            return loadedBytes.sum();
+        }
+
+        public long getSavedRequests() {
+            return getBlockedRequests() + getCachedRequests();
+        }
+
+        public long getSavedBytes() {
+            return getBlockedBytes() + getCachedBytes();
+        }
+    }
+}
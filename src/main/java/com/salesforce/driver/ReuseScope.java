@@ -0,0 +1,33 @@
+package com.salesforce.driver;
+
+import com.salesforce.utils.ConfigReader;
+import org.testng.ITestContext;
+
+/**
+ * How long a browser session is kept alive between test methods (session.reuse).
+ */
+public enum ReuseScope {
+    NONE,
+    CLASS,
+    TEST;
+
+    public static ReuseScope fromConfig() {
+        String value = ConfigReader.getProperty("session.reuse", "none");
+        try {
+            return valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported session.reuse: " + value + " (expected none, class or test)");
+        }
+    }
+
+    public String scopeKey(Class<?> testClass, ITestContext context) {
+        switch (this) {
+            case CLASS:
+                return "class:" + testClass.getName();
+            case TEST:
+                return "test:" + context.getSuite().getName() + "/" + context.getName();
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.salesforce.driver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Returns a live browser session to a clean state so it can be handed to the next test.
+ */
+public class SessionReset {
+    private static final Logger logger = LogManager.getLogger(SessionReset.class);
+
+    public static boolean reset(WebDriver driver, String url) {
+        try {
+            closeExtraWindows(driver);
+            clearState(driver);
+            driver.get(url);
+            clearState(driver);
+            return true;
+        } catch (WebDriverException e) {
+            logger.warn("Session reset failed, browser will be relaunched: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static void closeExtraWindows(WebDriver driver) {
+        List<String> handles = new ArrayList<>(driver.getWindowHandles());
+        for (String handle : handles.subList(1, handles.size())) {
+            driver.switchTo().window(handle).close();
+        }
+        driver.switchTo().window(handles.get(0));
+    }
+
+    private static void clearState(WebDriver driver) {
+        driver.manage().deleteAllCookies();
+        if (driver instanceof HasCdp) {
+            ((HasCdp) driver).executeCdpCommand("Network.clearBrowserCookies", Collections.emptyMap());
+        }
+        ((JavascriptExecutor) driver).executeScript(
+                "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+    }
+}
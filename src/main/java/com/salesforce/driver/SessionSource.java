@@ -0,0 +1,10 @@
+package com.salesforce.driver;
+
+/**
+ * Where a borrowed browser session came from.
+ */
+public enum SessionSource {
+    LAUNCHED,
+    WARMED,
+    REUSED
+}
@@ -0,0 +1,318 @@
+package com.salesforce.driver;
+
+import com.salesforce.utils.ConfigReader;
+import com.salesforce.utils.ExtentReportManager;
+import com.salesforce.utils.ResultEventStream;
+import com.salesforce.utils.ScreenshotUtil;
+import com.salesforce.utils.TestLogContext;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * Wall-clock budgets: each test from setUp to tearDown gets watchdog.testTimeoutSeconds and the suite gets
+ * watchdog.suiteTimeoutMinutes (0 turns either off). When a budget runs out the watchdog writes diagnostics
+ * (the test thread's stack, the page URL and title, a screenshot) to the run's diagnostics/ folder and the
+ * test's log, quits the session, kills its driver and browser processes if the quit does not return within
+ * watchdog.probeTimeoutSeconds, and interrupts the test thread, so a call blocked on the browser fails instead
+ * of hanging. Once the suite budget has run out, tests that have not started are skipped.
+ */
+public class SessionWatchdog {
+    public static final String GUARD_ATTRIBUTE = "watchdogGuard";
+    private static final String DIAGNOSTICS_FOLDER = "diagnostics";
+    private static final Logger logger = LogManager.getLogger(SessionWatchdog.class);
+    private static final int testTimeoutSeconds = ConfigReader.getIntProperty("watchdog.testTimeoutSeconds", 300);
+    private static final int suiteTimeoutMinutes = ConfigReader.getIntProperty("watchdog.suiteTimeoutMinutes", 0);
+    private static final int probeTimeoutSeconds = ConfigReader.getIntProperty("watchdog.probeTimeoutSeconds", 5);
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+    private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "session-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final ExecutorService probes = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "session-watchdog-" + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Set<Guard> active = ConcurrentHashMap.newKeySet();
+    private static final AtomicInteger timeouts = new AtomicInteger();
+    private static ScheduledFuture<?> suiteBudget;
+    private static volatile boolean suiteExpired;
+
+    /**
+     * Starts the budget of a test on the calling thread; the caller closes the guard when the test is done.
+     */
+    public static Guard watch(String testName) {
+        Guard guard = new Guard(testName, Thread.currentThread());
+        active.add(guard);
+        if (testTimeoutSeconds > 0) {
+            guard.budget = timer.schedule(() -> expire(guard, "test exceeded its " + testTimeoutSeconds + " s budget"),
+                    testTimeoutSeconds, TimeUnit.SECONDS);
+        }
+        return guard;
+    }
+
+    public static synchronized void startSuite() {
+        suiteExpired = false;
+        if (suiteTimeoutMinutes > 0 && suiteBudget == null) {
+            suiteBudget = timer.schedule(SessionWatchdog::expireSuite, suiteTimeoutMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    public static synchronized void endSuite() {
+        if (suiteBudget != null) {
+            suiteBudget.cancel(false);
+            suiteBudget = null;
+        }
+    }
+
+    public static boolean isSuiteBudgetExceeded() {
+        return suiteExpired;
+    }
+
+    public static int getTimeoutCount() {
+        return timeouts.get();
+    }
+
+    public static int getTestTimeoutSeconds() {
+        return testTimeoutSeconds;
+    }
+
+    public static int getSuiteTimeoutMinutes() {
+        return suiteTimeoutMinutes;
+    }
+
+    /**
+     * Replaces the failure of a test the watchdog ended (usually a dead-session error) with a
+     * {@link BudgetExceededException} naming the budget and the diagnostics, keeping the original as its cause
+     * and its stack, so the failure points at the test line that hung.
+     */
+    public static void explainTimeout(ITestResult result) {
+        Object attribute = result.getAttribute(GUARD_ATTRIBUTE);
+        if (!(attribute instanceof Guard) || result.getThrowable() instanceof BudgetExceededException) {
+            return;
+        }
+        Guard guard = (Guard) attribute;
+        if (guard.getTimeoutReason() != null) {
+            Throwable cause = result.getThrowable();
+            BudgetExceededException timeout = new BudgetExceededException("Watchdog: " + guard.getTimeoutReason()
+                    + ", session ended; diagnostics in " + guard.getDiagnosticsPath(), cause);
+            if (cause != null) {
+                timeout.setStackTrace(cause.getStackTrace());
+            }
+            result.setThrowable(timeout);
+        }
+    }
+
+    private static void expireSuite() {
+        suiteExpired = true;
+        logger.error("Suite exceeded its {} min budget: ending {} running tests and skipping the rest",
+                box(suiteTimeoutMinutes), box(active.size()));
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("budgetMinutes", suiteTimeoutMinutes);
+        fields.put("running", active.size());
+        ResultEventStream.emit("suiteTimeout", fields);
+        for (Guard guard : active) {
+            expire(guard, "suite exceeded its " + suiteTimeoutMinutes + " min budget");
+        }
+    }
+
+    /**
+     * Ends the guarded test on a pool thread, so the timer is never held up by a browser that does not answer.
+     */
+    private static void expire(Guard guard, String reason) {
+        probes.execute(() -> guard.expire(reason));
+    }
+
+    /**
+     * Runs a call against a possibly hung session, giving up after watchdog.probeTimeoutSeconds.
+     */
+    private static String probe(Callable<String> call) {
+        Future<String> future = probes.submit(call);
+        try {
+            return future.get(probeTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return "no answer within " + probeTimeoutSeconds + " s";
+        } catch (ExecutionException e) {
+            return "failed: " + e.getCause().getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "interrupted";
+        }
+    }
+
+    private static WebDriver unwrap(WebDriver driver) {
+        return driver instanceof WrapsDriver ? ((WrapsDriver) driver).getWrappedDriver() : driver;
+    }
+
+    /**
+     * The budget of one running test. The session is attached once borrowed; closing the guard cancels the
+     * budget and clears an interrupt the watchdog left on the test thread.
+     */
+    public static class Guard {
+        private final String testName;
+        private final Thread thread;
+        private final long startNanos = System.nanoTime();
+        private volatile WebDriver driver;
+        private volatile ScheduledFuture<?> budget;
+        private boolean closed;
+        private String timeoutReason;
+        private String diagnosticsPath;
+
+        private Guard(String testName, Thread thread) {
+            this.testName = testName;
+            this.thread = thread;
+        }
+
+        public void attach(WebDriver driver) {
+            this.driver = driver;
+        }
+
+        public void close() {
+            boolean timedOut;
+            synchronized (this) {
+                closed = true;
+                timedOut = timeoutReason != null;
+            }
+            if (budget != null) {
+                budget.cancel(false);
+            }
+            active.remove(this);
+            driver = null;
+            if (timedOut && Thread.currentThread() == thread) {
+                Thread.interrupted();
+            }
+        }
+
+        public synchronized String getTimeoutReason() {
+            return timeoutReason;
+        }
+
+        public synchronized String getDiagnosticsPath() {
+            return diagnosticsPath;
+        }
+
+        private void expire(String reason) {
+            synchronized (this) {
+                if (closed || timeoutReason != null) {
+                    return;
+                }
+                timeoutReason = reason;
+            }
+            timeouts.incrementAndGet();
+            TestLogContext.begin(testName);
+            try {
+                long elapsedSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos);
+                logger.error("Watchdog: {} after {} s, ending the session", reason, box(elapsedSeconds));
+                String diagnostics = writeDiagnostics(reason, elapsedSeconds);
+                synchronized (this) {
+                    diagnosticsPath = diagnostics;
+                }
+                Map<String, Object> fields = new LinkedHashMap<>();
+                fields.put("test", testName);
+                fields.put("reason", reason);
+                fields.put("elapsedSeconds", elapsedSeconds);
+                fields.put("diagnostics", Paths.get(ExtentReportManager.getReportFolderPath(), diagnostics).toString());
+                ResultEventStream.emit("timeout", fields);
+                endSession();
+                synchronized (this) {
+                    if (!closed) {
+                        thread.interrupt();
+                    }
+                }
+            } finally {
+                TestLogContext.end();
+            }
+        }
+
+        /**
+         * Writes the diagnostics file and returns its path relative to the report.
+         */
+        private String writeDiagnostics(String reason, long elapsedSeconds) {
+            String baseName = TestLogContext.toFileName(testName) + "_TIMEOUT";
+            StringBuilder report = new StringBuilder();
+            report.append("Test: ").append(testName).append('\n')
+                    .append("Reason: ").append(reason).append(" (after ").append(elapsedSeconds).append(" s)\n")
+                    .append("Thread: ").append(thread.getName()).append(" (").append(thread.getState()).append(")\n");
+            for (StackTraceElement frame : thread.getStackTrace()) {
+                report.append("    at ").append(frame).append('\n');
+            }
+            WebDriver session = driver == null ? null : unwrap(driver);
+            if (session == null) {
+                report.append("Session: none attached yet\n");
+            } else {
+                report.append("URL: ").append(probe(session::getCurrentUrl)).append('\n')
+                        .append("Title: ").append(probe(session::getTitle)).append('\n')
+                        .append("Screenshot: ").append(probe(() -> {
+                            String screenshot = ScreenshotUtil.captureScreenshot(session, baseName);
+                            return screenshot == null ? "not captured" : screenshot;
+                        })).append('\n');
+            }
+            logger.error("Watchdog diagnostics:\n{}", report);
+            String relativePath = DIAGNOSTICS_FOLDER + "/" + baseName + ".txt";
+            Path file = Paths.get(ExtentReportManager.getReportFolderPath(), relativePath);
+            try {
+                Files.createDirectories(file.getParent());
+                Files.write(file, report.toString().getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                logger.error("Failed to write watchdog diagnostics {}: {}", file, e.getMessage());
+            }
+            return relativePath;
+        }
+
+        /**
+         * Quits the session directly on the wrapped driver, leaving the pool's own quit in tearDown to release
+         * the slot and run the quit listeners, then kills whatever processes the session left behind.
+         */
+        private void endSession() {
+            WebDriver session = driver;
+            if (session == null) {
+                return;
+            }
+            WebDriver target = unwrap(session);
+            String quit = probe(() -> {
+                target.quit();
+                return "quit";
+            });
+            int killed = BrowserProcesses.kill(session);
+            logger.error("Watchdog ended the session of {} (quit: {}, {} processes killed)", testName, quit, box(killed));
+        }
+    }
+
+    /**
+     * The failure of a test the watchdog ended, with the error the test saw as its cause.
+     */
+    public static class BudgetExceededException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public BudgetExceededException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -2,8 +2,23 @@ package com.salesforce.listeners;
 
 import com.aventstack.extentreports.MediaEntityBuilder;
 import com.aventstack.extentreports.Status;
+import com.salesforce.auth.AuthSessionCache;
+import com.salesforce.base.BaseTest;
+import com.salesforce.driver.BrowserProcesses;
+import com.salesforce.driver.BrowserProfile;
+import com.salesforce.driver.DriverFactory;
+import com.salesforce.driver.DriverPool;
+import com.salesforce.driver.DriverProvider;
+import com.salesforce.driver.ResourceBlocker;
+import com.salesforce.driver.SessionWatchdog;
+import com.salesforce.pages.LocatorRegistry;
+import com.salesforce.utils.CommandLatency;
+import com.salesforce.utils.ConfigReader;
 import com.salesforce.utils.ExtentReportManager;
+import com.salesforce.utils.LatencyHistogram;
+import com.salesforce.utils.ResultEventStream;
 import com.salesforce.utils.ScreenshotUtil;
+import com.salesforce.utils.TestLogContext;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.WebDriver;
@@ -11,98 +26,284 @@ import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
 
-import java.lang.reflect.Field;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.logging.log4j.util.Unbox.box;
 
 public class ExtentReportListener implements ITestListener {
     private static final Logger logger = LogManager.getLogger(ExtentReportListener.class);
 
     @Override
     public void onStart(ITestContext context) {
-        logger.info("Test Suite Started: " + context.getName());
+        logger.info("Test Suite Started: {}", context.getName());
         ExtentReportManager.getInstance();
     }
 
     @Override
     public void onTestStart(ITestResult result) {
-        logger.info("Test Started: " + result.getName());
-        ExtentReportManager.createTest(result.getName());
-        ExtentReportManager.getTest().log(Status.INFO, "Test Started: " + result.getName());
-        ExtentReportManager.getTest().assignCategory(result.getTestClass().getRealClass().getSimpleName());
+        String name = BaseTest.getDisplayName(result);
+        logger.info("Test Started: {}", name);
+        ExtentReportManager.createTest(name);
+        ExtentReportManager.log(Status.INFO, "Test Started: " + name);
+        ExtentReportManager.assignCategory(result.getTestClass().getRealClass().getSimpleName());
+        Object timeToFirstCommand = result.getAttribute(BaseTest.TIME_TO_FIRST_COMMAND_ATTRIBUTE);
+        if (timeToFirstCommand != null) {
+            ExtentReportManager.log(Status.INFO, "Browser session: " + result.getAttribute(BaseTest.SESSION_SOURCE_ATTRIBUTE)
+                    + ", time to first command: " + timeToFirstCommand + " ms");
+        }
+        emitEvent("start", result, null);
     }
 
     @Override
     public void onTestSuccess(ITestResult result) {
-        logger.info("Test Passed: " + result.getName());
+        logger.info("Test Passed: {}", BaseTest.getDisplayName(result));
         WebDriver driver = getDriverFromResult(result);
+        String screenshotPath = null;
         if (driver != null) {
-            String screenshotPath = ScreenshotUtil.captureScreenshot(driver, result.getName() + "_PASS");
-            ExtentReportManager.getTest().log(Status.PASS, "Test Passed Successfully");
+            screenshotPath = ScreenshotUtil.captureScreenshot(driver, screenshotName(result, "PASS"), false);
+            ExtentReportManager.log(Status.PASS, "Test Passed Successfully");
             if (screenshotPath != null) {
                 try {
-                    ExtentReportManager.getTest().info("Screenshot:", 
+                    ExtentReportManager.log(Status.INFO, "Screenshot:",
                         MediaEntityBuilder.createScreenCaptureFromPath(screenshotPath).build());
                 } catch (Exception e) {
-                    logger.error("Failed to attach screenshot: " + e.getMessage());
+                    logger.error("Failed to attach screenshot: {}", e.getMessage());
                 }
             }
         }
+        logResourceSavings(driver);
+        logCommandLatency();
+        attachTestLog();
+        ExtentReportManager.endTest();
+        emitEvent("pass", result, screenshotPath);
     }
 
     @Override
     public void onTestFailure(ITestResult result) {
-        logger.error("Test Failed: " + result.getName());
+        logger.error("Test Failed: {}", BaseTest.getDisplayName(result));
         WebDriver driver = getDriverFromResult(result);
+        String screenshotPath = null;
         if (driver != null) {
-            String screenshotPath = ScreenshotUtil.captureScreenshot(driver, result.getName() + "_FAIL");
-            String errorMessage = result.getThrowable() != null ? result.getThrowable().getMessage() : "Unknown error";
-            ExtentReportManager.getTest().log(Status.FAIL, "Test Failed: " + errorMessage);
+            screenshotPath = ScreenshotUtil.captureScreenshot(driver, screenshotName(result, "FAIL"), true);
+            ExtentReportManager.log(Status.FAIL, "Test Failed: " + errorMessage(result));
             if (screenshotPath != null) {
                 try {
-                    ExtentReportManager.getTest().info("Screenshot on Failure:", 
+                    ExtentReportManager.log(Status.INFO, "Screenshot on Failure:",
                         MediaEntityBuilder.createScreenCaptureFromPath(screenshotPath).build());
                 } catch (Exception e) {
-                    logger.error("Failed to attach screenshot: " + e.getMessage());
+                    logger.error("Failed to attach screenshot: {}", e.getMessage());
                 }
             }
         }
+        logResourceSavings(driver);
+        logCommandLatency();
+        attachTestLog();
+        attachWatchdogDiagnostics(result);
+        ExtentReportManager.endTest();
+        emitEvent("fail", result, screenshotPath);
     }
 
     @Override
     public void onTestSkipped(ITestResult result) {
-        logger.warn("Test Skipped: " + result.getName());
+        boolean retrying = result.wasRetried();
+        logger.warn(retrying ? "Test Failed, Retrying: {}" : "Test Skipped: {}", BaseTest.getDisplayName(result));
+        if (ExtentReportManager.getTest() == null) {
+            ExtentReportManager.createTest(BaseTest.getDisplayName(result));
+        }
+        Status status = retrying ? Status.WARNING : Status.SKIP;
+        String details = retrying ? "Attempt Failed, Retrying: " + errorMessage(result) : "Test Skipped: " + BaseTest.getDisplayName(result);
         WebDriver driver = getDriverFromResult(result);
+        String screenshotPath = null;
         if (driver != null) {
-            String screenshotPath = ScreenshotUtil.captureScreenshot(driver, result.getName() + "_SKIP");
-            ExtentReportManager.getTest().log(Status.SKIP, "Test Skipped: " + result.getName());
+            screenshotPath = ScreenshotUtil.captureScreenshot(driver, screenshotName(result, retrying ? "RETRY" : "SKIP"), retrying);
+            ExtentReportManager.log(status, details);
             if (screenshotPath != null) {
                 try {
-                    ExtentReportManager.getTest().info("Screenshot:", 
+                    ExtentReportManager.log(Status.INFO, "Screenshot:",
                         MediaEntityBuilder.createScreenCaptureFromPath(screenshotPath).build());
                 } catch (Exception e) {
-                    logger.error("Failed to attach screenshot: " + e.getMessage());
+                    logger.error("Failed to attach screenshot: {}", e.getMessage());
                 }
             }
         } else {
-            ExtentReportManager.getTest().log(Status.SKIP, "Test Skipped: " + result.getName());
+            ExtentReportManager.log(status, details);
         }
+        logResourceSavings(driver);
+        logCommandLatency();
+        attachTestLog();
+        attachWatchdogDiagnostics(result);
+        ExtentReportManager.endTest();
+        emitEvent(retrying ? "retry" : "skip", result, screenshotPath);
     }
 
     @Override
     public void onFinish(ITestContext context) {
-        logger.info("Test Suite Finished: " + context.getName());
+        logger.info("Test Suite Finished: {}", context.getName());
         System.out.println("Report Location: " + ExtentReportManager.getReportFilePath());
+        logger.info("Browser launches: {}, launches saved by session reuse: {}", box(DriverPool.getLaunchCount()),
+                box(DriverPool.getLaunchesSaved()));
+        ExtentReportManager.setRunInfo("Browser Launches", String.valueOf(DriverPool.getLaunchCount()));
+        ExtentReportManager.setRunInfo("Launches Saved by Reuse", String.valueOf(DriverPool.getLaunchesSaved()));
+        ExtentReportManager.setRunInfo("Browser Profile", BrowserProfile.current().name().toLowerCase());
+        ExtentReportManager.setRunInfo("Browser Startup", timingSummary(DriverFactory.getStartupTimes()));
+        ExtentReportManager.setRunInfo("Start Page Load", timingSummary(DriverFactory.getStartPageLoadTimes()));
+        if (AuthSessionCache.getUiLogins() + AuthSessionCache.getRestores() > 0) {
+            ExtentReportManager.setRunInfo("Login Sessions", AuthSessionCache.getUiLogins() + " UI logins, "
+                    + AuthSessionCache.getRestores() + " restored from cache, " + AuthSessionCache.getInvalidations() + " invalidated");
+        }
+        if (ResourceBlocker.isEnabled()) {
+            ExtentReportManager.setRunInfo("Network Savings", networkSavingsSummary());
+        }
+        if (SessionWatchdog.getTimeoutCount() > 0) {
+            ExtentReportManager.setRunInfo("Watchdog Timeouts", SessionWatchdog.getTimeoutCount() + " tests ended (budget "
+                    + SessionWatchdog.getTestTimeoutSeconds() + " s per test"
+                    + (SessionWatchdog.getSuiteTimeoutMinutes() > 0 ? ", " + SessionWatchdog.getSuiteTimeoutMinutes() + " min per suite" : "") + ")");
+        }
+        if (BrowserProcesses.getOrphansKilled() > 0) {
+            ExtentReportManager.setRunInfo("Orphaned Browsers Reaped", BrowserProcesses.getOrphansKilled() + " processes left by earlier runs");
+        }
+        ExtentReportManager.setRunnerOutput("locators", locatorStatsTable());
+        ExtentReportManager.setRunnerOutput("latency", latencyTable("Command latency", CommandLatency.getCommandSummaries())
+                + latencyTable("Page method latency", CommandLatency.getPageMethodSummaries()));
+        CommandLatency.export(Paths.get(ExtentReportManager.getReportFolderPath(), "command-latency.json"));
+        ScreenshotUtil.awaitPendingWrites(ConfigReader.getIntProperty("screenshot.drainTimeoutMillis", 30000));
         ExtentReportManager.flush();
+        if (ResultEventStream.isEnabled()) {
+            Map<String, Object> counts = new LinkedHashMap<>();
+            counts.put("test", context.getName());
+            counts.put("passed", context.getPassedTests().size());
+            counts.put("failed", context.getFailedTests().size());
+            counts.put("skipped", context.getSkippedTests().size());
+            counts.put("droppedEvents", ResultEventStream.getDroppedCount());
+            ResultEventStream.emit("finish", counts);
+            ResultEventStream.drain(ConfigReader.getIntProperty("events.drainTimeoutMillis", 5000));
+        }
     }
 
     private WebDriver getDriverFromResult(ITestResult result) {
-        try {
-            Object testInstance = result.getInstance();
-            Field driverField = testInstance.getClass().getSuperclass().getDeclaredField("driver");
-            driverField.setAccessible(true);
-            return (WebDriver) driverField.get(testInstance);
-        } catch (Exception e) {
-            logger.error("Failed to get driver from test instance: " + e.getMessage());
-            return null;
+        Object driver = result.getAttribute(DriverProvider.DRIVER_ATTRIBUTE);
+        if (driver instanceof WebDriver) {
+            return (WebDriver) driver;
+        }
+        Object testInstance = result.getInstance();
+        return testInstance instanceof DriverProvider ? ((DriverProvider) testInstance).getDriver() : null;
+    }
+
+    /**
+     * Streams a lifecycle event for the test; end events carry the duration, error and screenshot path.
+     */
+    private void emitEvent(String type, ITestResult result, String screenshotPath) {
+        if (!ResultEventStream.isEnabled()) {
+            return;
+        }
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("test", BaseTest.getDisplayName(result));
+        fields.put("class", result.getTestClass().getRealClass().getName());
+        fields.put("method", result.getMethod().getMethodName());
+        if (!"start".equals(type)) {
+            fields.put("durationMillis", Math.max(0, result.getEndMillis() - result.getStartMillis()));
+            Throwable error = result.getThrowable();
+            if (error != null) {
+                fields.put("errorType", error.getClass().getName());
+                fields.put("error", String.valueOf(error.getMessage()));
+            }
+            if (screenshotPath != null) {
+                fields.put("screenshot", Paths.get(ExtentReportManager.getReportFolderPath(), screenshotPath).toString());
+            }
+        }
+        ResultEventStream.emit(type, fields);
+    }
+
+    private String errorMessage(ITestResult result) {
+        return result.getThrowable() != null ? result.getThrowable().getMessage() : "Unknown error";
+    }
+
+    private String screenshotName(ITestResult result, String status) {
+        return TestLogContext.toFileName(BaseTest.getDisplayName(result)) + "_" + status;
+    }
+
+    private void attachTestLog() {
+        String logPath = TestLogContext.getRelativeLogPath();
+        if (logPath != null) {
+            ExtentReportManager.log(Status.INFO, "<a href='" + logPath + "' target='_blank'>Test log</a>");
+        }
+    }
+
+    private void attachWatchdogDiagnostics(ITestResult result) {
+        Object guard = result.getAttribute(SessionWatchdog.GUARD_ATTRIBUTE);
+        if (guard instanceof SessionWatchdog.Guard && ((SessionWatchdog.Guard) guard).getDiagnosticsPath() != null) {
+            ExtentReportManager.log(Status.WARNING, "<a href='" + ((SessionWatchdog.Guard) guard).getDiagnosticsPath()
+                    + "' target='_blank'>Watchdog diagnostics</a>");
+        }
+    }
+
+    private String locatorStatsTable() {
+        StringBuilder table = new StringBuilder("<h6>Locator lookups</h6><table class='table table-sm'>"
+                + "<tr><th>Locator</th><th>Lookups</th><th>Cache hits</th><th>Stale refreshes</th>"
+                + "<th>Avg ms</th><th>Max ms</th></tr>");
+        for (Map.Entry<String, LocatorRegistry.LookupStats> entry : LocatorRegistry.getStats().entrySet()) {
+            LocatorRegistry.LookupStats stats = entry.getValue();
+            table.append(String.format("<tr><td>%s</td><td>%d</td><td>%d</td><td>%d</td><td>%.1f</td><td>%.1f</td></tr>",
+                    entry.getKey(), stats.getLookups(), stats.getCacheHits(), stats.getStaleRefreshes(),
+                    stats.getAverageMillis(), stats.getMaxMillis()));
+        }
+        return table.append("</table>").toString();
+    }
+
+    private String timingSummary(LatencyHistogram times) {
+        return times.getCount() == 0 ? "n/a" : String.format("p50 %.0f ms, p95 %.0f ms, max %.0f ms (%d)",
+                times.getPercentileMillis(50), times.getPercentileMillis(95), times.getMaxMillis(), times.getCount());
+    }
+
+    private void logResourceSavings(WebDriver driver) {
+        ResourceBlocker blocker = driver == null ? null : ResourceBlocker.forDriver(driver);
+        if (blocker == null) {
+            return;
+        }
+        List<ResourceBlocker.PageLoad> pageLoads = blocker.takePageLoads();
+        if (pageLoads.isEmpty()) {
+            return;
+        }
+        StringBuilder table = new StringBuilder("<h6>Network savings</h6><table class='table table-sm'>"
+                + "<tr><th>Page load</th><th>Blocked</th><th>From cache</th><th>Loaded</th><th>KB saved</th>"
+                + "<th>KB loaded</th></tr>");
+        for (ResourceBlocker.PageLoad pageLoad : pageLoads) {
+            table.append(String.format("<tr><td>%s</td><td>%d</td><td>%d</td><td>%d</td><td>%.1f</td><td>%.1f</td></tr>",
+                    pageLoad.getUrl(), pageLoad.getBlockedRequests(), pageLoad.getCachedRequests(),
+                    pageLoad.getLoadedRequests(), pageLoad.getSavedBytes() / 1024.0, pageLoad.getLoadedBytes() / 1024.0));
+        }
+        ExtentReportManager.log(Status.INFO, table.append("</table>").toString());
+    }
+
+    private String networkSavingsSummary() {
+        ResourceBlocker.PageLoad totals = ResourceBlocker.getRunTotals();
+        long pageLoads = Math.max(1, ResourceBlocker.getPageLoadCount());
+        return String.format("%d requests blocked, %d from cache, %.1f KB saved (%.1f requests, %.1f KB per page load)",
+                totals.getBlockedRequests(), totals.getCachedRequests(), totals.getSavedBytes() / 1024.0,
+                (double) totals.getSavedRequests() / pageLoads, totals.getSavedBytes() / 1024.0 / pageLoads);
+    }
+
+    private void logCommandLatency() {
+        CommandLatency.TestLatency latency = CommandLatency.endTest();
+        if (latency != null && latency.getTotal().getCount() > 0) {
+            ExtentReportManager.log(Status.INFO, latencyTable(String.format("Command latency (%d calls, %.1f ms)",
+                    latency.getTotal().getCount(), latency.getTotal().getTotalMillis()), latency.getByCommand()));
+        }
+    }
+
+    private String latencyTable(String title, Map<String, CommandLatency.Summary> summaries) {
+        StringBuilder table = new StringBuilder("<h6>" + title + "</h6><table class='table table-sm'>"
+                + "<tr><th>Name</th><th>Calls</th><th>Total ms</th><th>p50 ms</th><th>p95 ms</th><th>p99 ms</th>"
+                + "<th>Max ms</th></tr>");
+        for (Map.Entry<String, CommandLatency.Summary> entry : summaries.entrySet()) {
+            CommandLatency.Summary summary = entry.getValue();
+            table.append(String.format("<tr><td>%s</td><td>%d</td><td>%.1f</td><td>%.1f</td><td>%.1f</td><td>%.1f</td><td>%.1f</td></tr>",
+                    entry.getKey(), summary.getCount(), summary.getTotalMillis(), summary.getP50Millis(),
+                    summary.getP95Millis(), summary.getP99Millis(), summary.getMaxMillis()));
         }
+        return table.append("</table>").toString();
     }
 }
@@ -0,0 +1,111 @@
+package com.salesforce.listeners;
+
+import com.aventstack.extentreports.Status;
+import com.salesforce.results.ResultCache;
+import com.salesforce.utils.ExtentReportManager;
+import com.salesforce.utils.ResultEventStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Incremental runs (resultcache.enabled=true): methods whose inputs have not changed since a pass within
+ * resultcache.ttlHours are left out of the run and shown in the report as "cached pass"; see
+ * {@link ResultCache} for what the fingerprint covers. Every real pass refreshes the method's cache entry and
+ * every failure or skip drops it. Data-driven methods always run.
+ */
+public class ResultCacheListener implements IMethodInterceptor, ITestListener {
+    public static final String CACHED_PASS_CATEGORY = "cached pass";
+    private static final Logger logger = LogManager.getLogger(ResultCacheListener.class);
+    private static final AtomicInteger cachedPasses = new AtomicInteger();
+    private static ResultCache cache;
+
+    private static synchronized ResultCache getCache() {
+        if (cache == null) {
+            cache = ResultCache.load();
+        }
+        return cache;
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!ResultCache.isEnabled() || ResultCache.isForced()) {
+            return methods;
+        }
+        List<IMethodInstance> kept = new ArrayList<>();
+        for (IMethodInstance instance : methods) {
+            ITestNGMethod method = instance.getMethod();
+            ResultCache.Entry pass = method.isDataDriven() ? null
+                    : getCache().findPass(methodKey(method), ResultCache.fingerprint(method.getRealClass(), method.getMethodName()));
+            if (pass == null) {
+                kept.add(instance);
+            } else {
+                reportCachedPass(method, pass);
+            }
+        }
+        logger.info("Test {}: {} of {} methods skipped as cached passes", context.getName(),
+                methods.size() - kept.size(), methods.size());
+        return kept;
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        ITestNGMethod method = result.getMethod();
+        if (ResultCache.isEnabled() && !method.isDataDriven()) {
+            getCache().recordPass(methodKey(method), ResultCache.fingerprint(method.getRealClass(), method.getMethodName()));
+        }
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        if (ResultCache.isEnabled()) {
+            getCache().remove(methodKey(result.getMethod()));
+        }
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        onTestFailure(result);
+    }
+
+    @Override
+    public void onFinish(ITestContext context) {
+        if (ResultCache.isEnabled()) {
+            getCache().save();
+            ExtentReportManager.setRunInfo("Cached Passes", cachedPasses.get() + " methods not run (inputs unchanged, TTL "
+                    + ResultCache.getTtl().toHours() + " h" + (ResultCache.isForced() ? ", forced run" : "") + ")");
+        }
+    }
+
+    private void reportCachedPass(ITestNGMethod method, ResultCache.Entry pass) {
+        cachedPasses.incrementAndGet();
+        logger.info("Cached pass: {}", method.getMethodName());
+        ExtentReportManager.createTest(method.getMethodName());
+        ExtentReportManager.assignCategory(method.getRealClass().getSimpleName());
+        ExtentReportManager.assignCategory(CACHED_PASS_CATEGORY);
+        ExtentReportManager.log(Status.PASS, "Cached pass: test class, page objects, configuration, browser and URL "
+                + "unchanged since it passed at " + pass.getPassed());
+        ExtentReportManager.endTest();
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("test", method.getMethodName());
+        fields.put("class", method.getRealClass().getName());
+        fields.put("method", method.getMethodName());
+        fields.put("cached", true);
+        ResultEventStream.emit("pass", fields);
+    }
+
+    private static String methodKey(ITestNGMethod method) {
+        return method.getRealClass().getName() + "." + method.getMethodName();
+    }
+}
@@ -0,0 +1,180 @@
+package com.salesforce.listeners;
+
+import com.salesforce.base.BaseTest;
+import com.salesforce.results.ResultsStore;
+import com.salesforce.utils.ConfigReader;
+import com.salesforce.utils.ExtentReportManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IDataProviderInterceptor;
+import org.testng.IDataProviderMethod;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records every test's outcome, duration and failure signature in the run's {@link ResultsStore}. With
+ * rerun.failed=true only the tests that did not pass in the earlier run are run: whole methods through the
+ * method interceptor and single rows of data-driven methods through the DataProvider interceptor. Each of
+ * them is retried up to rerun.retries more times within the run, and the outcomes go back into the earlier
+ * run's store and report.
+ */
+public class ResultsListener implements ITestListener, IMethodInterceptor, IDataProviderInterceptor {
+    private static final Logger logger = LogManager.getLogger(ResultsListener.class);
+    private static final int retries = ConfigReader.getIntProperty("rerun.retries", 0);
+    private static final Map<String, Integer> failedAttempts = new ConcurrentHashMap<>();
+    private static final AtomicInteger rerunCount = new AtomicInteger();
+    private static final AtomicInteger rerunPassed = new AtomicInteger();
+    private static ResultsStore store;
+    private static volatile Set<String> rerunKeys;
+
+    private static synchronized ResultsStore getStore() {
+        if (store == null) {
+            store = ResultsStore.open(Paths.get(ExtentReportManager.getReportFolderPath()));
+            if (ResultsStore.isRerun()) {
+                if (ResultsStore.findRerunFolder() == null) {
+                    logger.warn("rerun.failed is set but no earlier run has a {}, running all tests", ResultsStore.STORE_FILE);
+                } else {
+                    rerunKeys = store.getNotPassed();
+                    logger.info("Rerunning {} tests that did not pass in {}", rerunKeys.size(), ExtentReportManager.getReportFolderPath());
+                }
+            }
+        }
+        return store;
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        ExtentReportManager.getInstance();
+        getStore();
+        if (rerunKeys == null) {
+            return methods;
+        }
+        List<IMethodInstance> kept = new ArrayList<>();
+        for (IMethodInstance method : methods) {
+            String methodKey = methodKey(method.getMethod());
+            boolean rerun = rerunKeys.stream().anyMatch(key -> key.equals(methodKey) || key.startsWith(methodKey + " "));
+            if (rerun) {
+                if (retries > 0) {
+                    method.getMethod().setRetryAnalyzerClass(RetryFailed.class);
+                }
+                kept.add(method);
+            }
+        }
+        logger.info("Test {}: rerunning {} of {} methods", context.getName(), kept.size(), methods.size());
+        return kept;
+    }
+
+    @Override
+    public Iterator<Object[]> intercept(Iterator<Object[]> original, IDataProviderMethod dataProviderMethod,
+                                        ITestNGMethod method, ITestContext context) {
+        getStore();
+        if (rerunKeys == null) {
+            return original;
+        }
+        String prefix = method.getRealClass().getName() + ".";
+        return new Iterator<Object[]>() {
+            private Object[] next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && original.hasNext()) {
+                    Object[] row = original.next();
+                    if (rerunKeys.contains(prefix + BaseTest.getDisplayName(method.getMethodName(), row))) {
+                        next = row;
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public Object[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Object[] row = next;
+                next = null;
+                return row;
+            }
+        };
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result, ResultsStore.Result.PASS);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result, ResultsStore.Result.FAIL);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        if (result.wasRetried()) {
+            failedAttempts.merge(resultKey(result), 1, Integer::sum);
+            return;
+        }
+        record(result, ResultsStore.Result.SKIP);
+    }
+
+    @Override
+    public void onFinish(ITestContext context) {
+        ResultsStore results = getStore();
+        results.save();
+        if (rerunKeys != null) {
+            ExtentReportManager.setRunInfo("Rerun", rerunCount.get() + " failed or skipped tests rerun, "
+                    + rerunPassed.get() + " now pass" + (retries > 0 ? " (up to " + retries + " retries each)" : ""));
+        }
+        logger.info("Results of {} saved to {}", context.getName(), results.getFile());
+    }
+
+    private void record(ITestResult result, String status) {
+        String key = resultKey(result);
+        Integer failed = failedAttempts.remove(key);
+        int attempts = 1 + (failed == null ? 0 : failed);
+        long durationMillis = Math.max(0, result.getEndMillis() - result.getStartMillis());
+        Throwable error = ResultsStore.Result.PASS.equals(status) ? null : result.getThrowable();
+        getStore().record(key, new ResultsStore.Result(status, durationMillis, attempts, error));
+        if (rerunKeys != null) {
+            rerunCount.incrementAndGet();
+            if (ResultsStore.Result.PASS.equals(status)) {
+                rerunPassed.incrementAndGet();
+            }
+        }
+    }
+
+    private static String methodKey(ITestNGMethod method) {
+        return method.getRealClass().getName() + "." + method.getMethodName();
+    }
+
+    private static String resultKey(ITestResult result) {
+        return result.getTestClass().getRealClass().getName() + "." + BaseTest.getDisplayName(result);
+    }
+
+    /**
+     * Retries a rerun test up to rerun.retries times; TestNG reports the failed attempts as retried skips.
+     */
+    public static class RetryFailed implements IRetryAnalyzer {
+        private int retried;
+
+        @Override
+        public boolean retry(ITestResult result) {
+            return retried++ < retries;
+        }
+    }
+}
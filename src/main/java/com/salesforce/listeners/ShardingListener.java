@@ -0,0 +1,104 @@
+package com.salesforce.listeners;
+
+import com.salesforce.sharding.DurationHistory;
+import com.salesforce.sharding.ShardPlanner;
+import com.salesforce.utils.ConfigReader;
+import com.salesforce.utils.ExtentReportManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.IReporter;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.reporters.XMLReporter;
+import org.testng.xml.XmlSuite;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs one shard of the suite when shard.count is above 1. On suite start every test method is planned into
+ * shard.count shards by its historical duration (see {@link ShardPlanner}) and only the methods of shard.index
+ * are kept. The shard's testng-results.xml is also written into its report run folder, next to extent.json,
+ * so the folder holds everything {@code ShardMerger} needs.
+ */
+public class ShardingListener implements ISuiteListener, IMethodInterceptor, IReporter {
+    private static final Logger logger = LogManager.getLogger(ShardingListener.class);
+    private static final int shardCount = ConfigReader.getIntProperty("shard.count", 1);
+    private static final int shardIndex = ConfigReader.getIntProperty("shard.index", 0);
+    private final Map<String, Set<String>> assignedBySuite = new ConcurrentHashMap<>();
+
+    @Override
+    public void onStart(ISuite suite) {
+        if (shardCount <= 1) {
+            return;
+        }
+        if (shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException("shard.index must be between 0 and " + (shardCount - 1) + ": " + shardIndex);
+        }
+        Set<String> methodKeys = new TreeSet<>();
+        for (ITestNGMethod method : suite.getAllMethods()) {
+            methodKeys.add(methodKey(method));
+        }
+        DurationHistory history = DurationHistory.load(historyPaths());
+        List<ShardPlanner.Shard> plan = ShardPlanner.plan(methodKeys, history, shardCount,
+                ConfigReader.getIntProperty("shard.defaultDurationMs", 30000));
+        logger.info("Planned " + methodKeys.size() + " methods into " + shardCount + " shards using history for "
+                + history.size() + " methods");
+        for (ShardPlanner.Shard shard : plan) {
+            logger.info((shard.getIndex() == shardIndex ? "* " : "  ") + "Shard " + shard.getIndex() + ": "
+                    + shard.getMethods().size() + " methods, expected " + shard.getExpectedMillis() / 1000 + " s");
+        }
+        ShardPlanner.Shard shard = plan.get(shardIndex);
+        assignedBySuite.put(suite.getName(), new HashSet<>(shard.getMethods()));
+        ExtentReportManager.setRunInfo("Shard", shardIndex + " of " + shardCount + " (" + shard.getMethods().size()
+                + " methods, expected " + shard.getExpectedMillis() / 1000 + " s)");
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        Set<String> assigned = assignedBySuite.get(context.getSuite().getName());
+        if (assigned == null) {
+            return methods;
+        }
+        List<IMethodInstance> kept = new ArrayList<>();
+        for (IMethodInstance method : methods) {
+            if (assigned.contains(methodKey(method.getMethod()))) {
+                kept.add(method);
+            }
+        }
+        return kept;
+    }
+
+    @Override
+    public void generateReport(List<XmlSuite> xmlSuites, List<ISuite> suites, String outputDirectory) {
+        String reportFolder = ExtentReportManager.getReportFolderPath();
+        if (shardCount > 1 && reportFolder != null) {
+            new XMLReporter().generateReport(xmlSuites, suites, reportFolder);
+        }
+    }
+
+    private static String methodKey(ITestNGMethod method) {
+        return method.getRealClass().getName() + "." + method.getMethodName();
+    }
+
+    private static List<Path> historyPaths() {
+        List<Path> paths = new ArrayList<>();
+        for (String path : ConfigReader.getProperty("shard.history", "reports/merged").split(",")) {
+            if (!path.trim().isEmpty()) {
+                paths.add(Paths.get(path.trim()));
+            }
+        }
+        return paths;
+    }
+}
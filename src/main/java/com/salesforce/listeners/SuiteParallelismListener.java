@@ -0,0 +1,30 @@
+package com.salesforce.listeners;
+
+import com.salesforce.driver.DriverPool;
+import com.salesforce.utils.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+
+import java.util.List;
+
+/**
+ * Sizes parallel suites and parallel DataProviders (data.threadCount, default the pool size) to the browser
+ * pool so every worker thread can hold a session.
+ */
+public class SuiteParallelismListener implements IAlterSuiteListener {
+    private static final Logger logger = LogManager.getLogger(SuiteParallelismListener.class);
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        for (XmlSuite suite : suites) {
+            if (suite.getParallel() != null && suite.getParallel().isParallel()) {
+                suite.setThreadCount(DriverPool.getPoolSize());
+                logger.info("Suite " + suite.getName() + " running " + suite.getParallel()
+                        + " in parallel on " + suite.getThreadCount() + " threads");
+            }
+            suite.setDataProviderThreadCount(ConfigReader.getIntProperty("data.threadCount", DriverPool.getPoolSize()));
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.salesforce.listeners;
+
+import com.salesforce.driver.SessionWatchdog;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+
+/**
+ * Runs the suite's {@link SessionWatchdog} budget and, before the result listeners see a test the watchdog
+ * ended, replaces its dead-session error with the timeout it stands for.
+ */
+public class WatchdogListener implements ISuiteListener, IInvokedMethodListener {
+
+    @Override
+    public void onStart(ISuite suite) {
+        SessionWatchdog.startSuite();
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        SessionWatchdog.endSuite();
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult result) {
+        if (method.isTestMethod()) {
+            SessionWatchdog.explainTimeout(result);
+        }
+    }
+}
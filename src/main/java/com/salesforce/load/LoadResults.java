@@ -0,0 +1,157 @@
+package com.salesforce.load;
+
+import com.salesforce.utils.LatencyHistogram;
+import org.openqa.selenium.json.Json;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Per-iteration results of a load run. Every iteration is appended to iterations.csv as it completes; latency
+ * of successful logins goes into one fixed-size histogram per phase, and outcomes are counted per phase and
+ * per second of the run.
+ */
+public class LoadResults implements AutoCloseable {
+    public static final String SUCCESS = "HOME_PAGE";
+    private final Map<Phase, PhaseResults> phases = new EnumMap<>(Phase.class);
+    private final Map<Long, LongAdder> completedPerSecond = new ConcurrentSkipListMap<>();
+    private final Map<Long, LongAdder> failedPerSecond = new ConcurrentHashMap<>();
+    private final BufferedWriter iterations;
+
+    public LoadResults(Path iterationsFile) throws IOException {
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, new PhaseResults());
+        }
+        iterations = Files.newBufferedWriter(iterationsFile, StandardCharsets.UTF_8);
+        iterations.write("user,iteration,phase,startMillis,latencyMillis,outcome\n");
+    }
+
+    /**
+     * Records one iteration that started {@code startMillis} after the run began.
+     */
+    public void record(int user, int iteration, Phase phase, long startMillis, long latencyNanos, String outcome) {
+        PhaseResults results = phases.get(phase);
+        results.outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+        boolean success = SUCCESS.equals(outcome);
+        if (success) {
+            results.latency.record(latencyNanos);
+        }
+        long second = (startMillis + latencyNanos / 1_000_000) / 1000;
+        completedPerSecond.computeIfAbsent(second, key -> new LongAdder()).increment();
+        if (!success) {
+            failedPerSecond.computeIfAbsent(second, key -> new LongAdder()).increment();
+        }
+        String line = String.format("%d,%d,%s,%d,%.1f,%s%n", user, iteration, phase, startMillis, latencyNanos / 1_000_000.0, outcome);
+        synchronized (iterations) {
+            try {
+                iterations.write(line);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write iteration result", e);
+            }
+        }
+    }
+
+    /**
+     * Sets how long the phase actually lasted, which throughput is computed over.
+     */
+    public void setPhaseMillis(Phase phase, long millis) {
+        phases.get(phase).millis = millis;
+    }
+
+    public PhaseResults getPhase(Phase phase) {
+        return phases.get(phase);
+    }
+
+    public void export(Path file, Map<String, Object> settings) throws IOException {
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("settings", settings);
+        Map<String, Object> byPhase = new LinkedHashMap<>();
+        phases.forEach((phase, results) -> byPhase.put(phase.name(), results.toJson()));
+        document.put("phases", byPhase);
+        List<Map<String, Object>> timeline = completedPerSecond.entrySet().stream().map(entry -> {
+            Map<String, Object> point = new LinkedHashMap<>();
+            point.put("second", entry.getKey());
+            point.put("completed", entry.getValue().sum());
+            LongAdder failed = failedPerSecond.get(entry.getKey());
+            point.put("failed", failed == null ? 0 : failed.sum());
+            return point;
+        }).collect(Collectors.toList());
+        document.put("timeline", timeline);
+        Files.write(file, new Json().toJson(document).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (iterations) {
+            iterations.close();
+        }
+    }
+
+    public static class PhaseResults {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final Map<String, LongAdder> outcomes = new ConcurrentSkipListMap<>();
+        private volatile long millis;
+
+        public long getIterations() {
+            return outcomes.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+
+        public long getSuccesses() {
+            LongAdder successes = outcomes.get(SUCCESS);
+            return successes == null ? 0 : successes.sum();
+        }
+
+        public double getErrorRate() {
+            long iterations = getIterations();
+            return iterations == 0 ? 0 : (double) (iterations - getSuccesses()) / iterations;
+        }
+
+        /**
+         * Successful logins per second over the phase.
+         */
+        public double getThroughput() {
+            return millis == 0 ? 0 : getSuccesses() * 1000.0 / millis;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public Map<String, Long> getOutcomes() {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            outcomes.forEach((outcome, count) -> counts.put(outcome, count.sum()));
+            return counts;
+        }
+
+        Map<String, Object> toJson() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("seconds", millis / 1000.0);
+            json.put("iterations", getIterations());
+            json.put("successes", getSuccesses());
+            json.put("errorRate", getErrorRate());
+            json.put("throughputPerSecond", getThroughput());
+            json.put("p50Millis", latency.getPercentileMillis(50));
+            json.put("p95Millis", latency.getPercentileMillis(95));
+            json.put("p99Millis", latency.getPercentileMillis(99));
+            json.put("maxMillis", latency.getMaxMillis());
+            json.put("outcomes", getOutcomes());
+            return json;
+        }
+    }
+}
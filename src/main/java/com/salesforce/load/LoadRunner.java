@@ -0,0 +1,258 @@
+package com.salesforce.load;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.salesforce.driver.BrowserProfile;
+import com.salesforce.driver.DriverFactory;
+import com.salesforce.pages.LoginPage;
+import com.salesforce.standin.LoginStandInServer;
+import com.salesforce.utils.ConfigReader;
+import com.salesforce.utils.ExtentReportManager;
+import com.salesforce.utils.LatencyHistogram;
+import com.salesforce.utils.Waiter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * Load mode: load.users virtual users, each with its own browser session, log in through
+ * {@link LoginPage#performLogin} in a loop. Users start evenly over load.rampUpSeconds, all run for
+ * load.steadyStateSeconds, and stop evenly over the rest of load.durationSeconds. Every iteration's end-to-end
+ * latency (page load to login outcome) and outcome is recorded; throughput and p50/p95/p99 are reported per
+ * phase in reports/load_YYYYMMDD_HHMMSS/ (LoadReport.html, load-summary.json, iterations.csv).
+ * <p>
+ * Usage: {@code mvn -q exec:java -Dexec.mainClass=com.salesforce.load.LoadRunner -Dstandin.enabled=true}
+ */
+public class LoadRunner {
+    private static final Logger logger = LogManager.getLogger(LoadRunner.class);
+    private final int users;
+    private final long rampUpMillis;
+    private final long steadyStateMillis;
+    private final long durationMillis;
+    private final long thinkTimeMillis;
+    private final Supplier<LoginSession> sessions;
+
+    /**
+     * One virtual user's session; {@link #login()} runs one iteration and returns its outcome.
+     */
+    interface LoginSession extends AutoCloseable {
+        String login();
+
+        @Override
+        void close();
+    }
+
+    LoadRunner(int users, long rampUpMillis, long steadyStateMillis, long durationMillis, long thinkTimeMillis,
+               Supplier<LoginSession> sessions) {
+        if (users < 1) {
+            throw new IllegalArgumentException("load.users must be at least 1");
+        }
+        if (durationMillis < rampUpMillis + steadyStateMillis) {
+            throw new IllegalArgumentException("load.durationSeconds must cover ramp-up and steady state");
+        }
+        this.users = users;
+        this.rampUpMillis = rampUpMillis;
+        this.steadyStateMillis = steadyStateMillis;
+        this.durationMillis = durationMillis;
+        this.thinkTimeMillis = thinkTimeMillis;
+        this.sessions = sessions;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        long rampUpMillis = ConfigReader.getIntProperty("load.rampUpSeconds", 10) * 1000L;
+        long steadyStateMillis = ConfigReader.getIntProperty("load.steadyStateSeconds", 60) * 1000L;
+        long durationMillis = ConfigReader.getIntProperty("load.durationSeconds", 0) * 1000L;
+        LoadRunner runner = new LoadRunner(ConfigReader.getIntProperty("load.users", 5), rampUpMillis, steadyStateMillis,
+                durationMillis > 0 ? durationMillis : rampUpMillis + steadyStateMillis,
+                ConfigReader.getIntProperty("load.thinkTimeMillis", 0), BrowserLoginSession::new);
+        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+        try {
+            Path folder = Paths.get("reports", "load_" + timestamp);
+            LoadResults results = runner.run(folder);
+            for (Phase phase : Phase.values()) {
+                System.out.println(phase + ": " + summary(results.getPhase(phase)));
+            }
+            System.out.println("Load report: " + folder.resolve("LoadReport.html").toAbsolutePath());
+        } finally {
+            LoginStandInServer.stop();
+        }
+    }
+
+    public LoadResults run(Path folder) throws IOException, InterruptedException {
+        Files.createDirectories(folder);
+        String url = ConfigReader.getUrl();
+        logger.info("Load run against {}: {} users, ramp-up {} ms, steady state {} ms, duration {} ms", url,
+                box(users), box(rampUpMillis), box(steadyStateMillis), box(durationMillis));
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(users,
+                runnable -> new Thread(runnable, "load-user-" + threadCount.incrementAndGet()));
+        long rampDownMillis = durationMillis - rampUpMillis - steadyStateMillis;
+        long runStart = System.nanoTime();
+        try (LoadResults results = new LoadResults(folder.resolve("iterations.csv"))) {
+            for (int user = 0; user < users; user++) {
+                int id = user + 1;
+                long startAt = rampUpMillis * user / users;
+                long stopAt = rampUpMillis + steadyStateMillis + rampDownMillis * id / users;
+                pool.execute(() -> runUser(id, runStart, startAt, stopAt, results));
+            }
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            long elapsed = elapsedMillis(runStart);
+            results.setPhaseMillis(Phase.RAMP_UP, Math.min(elapsed, rampUpMillis));
+            results.setPhaseMillis(Phase.STEADY_STATE, Math.max(0, Math.min(elapsed - rampUpMillis, steadyStateMillis)));
+            results.setPhaseMillis(Phase.RAMP_DOWN, Math.max(0, elapsed - rampUpMillis - steadyStateMillis));
+            Map<String, Object> settings = settings(url);
+            results.export(folder.resolve("load-summary.json"), settings);
+            writeReport(folder.resolve("LoadReport.html"), results, settings);
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void runUser(int user, long runStart, long startAt, long stopAt, LoadResults results) {
+        try {
+            Thread.sleep(Math.max(0, startAt - elapsedMillis(runStart)));
+        } catch (InterruptedException e) {
+            return;
+        }
+        LoginSession session;
+        try {
+            session = sessions.get();
+        } catch (RuntimeException e) {
+            logger.error("Virtual user {} failed to start a session: {}", box(user), e.getMessage());
+            long startMillis = elapsedMillis(runStart);
+            results.record(user, 0, phaseAt(startMillis), startMillis, 0, "LAUNCH_FAILED");
+            return;
+        }
+        try (LoginSession active = session) {
+            int iteration = 0;
+            while (elapsedMillis(runStart) < stopAt) {
+                long iterationStart = System.nanoTime();
+                long startMillis = (iterationStart - runStart) / 1_000_000;
+                String outcome;
+                try {
+                    outcome = active.login();
+                } catch (RuntimeException e) {
+                    outcome = "ERROR:" + e.getClass().getSimpleName();
+                }
+                results.record(user, ++iteration, phaseAt(startMillis), startMillis, System.nanoTime() - iterationStart, outcome);
+                if (thinkTimeMillis > 0) {
+                    Thread.sleep(thinkTimeMillis);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Phase phaseAt(long millis) {
+        if (millis < rampUpMillis) {
+            return Phase.RAMP_UP;
+        }
+        return millis < rampUpMillis + steadyStateMillis ? Phase.STEADY_STATE : Phase.RAMP_DOWN;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private Map<String, Object> settings(String url) {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("url", url);
+        settings.put("browser", ConfigReader.getBrowser());
+        settings.put("browserProfile", BrowserProfile.current().name().toLowerCase());
+        settings.put("users", users);
+        settings.put("rampUpSeconds", rampUpMillis / 1000.0);
+        settings.put("steadyStateSeconds", steadyStateMillis / 1000.0);
+        settings.put("durationSeconds", durationMillis / 1000.0);
+        settings.put("thinkTimeMillis", thinkTimeMillis);
+        return settings;
+    }
+
+    private void writeReport(Path file, LoadResults results, Map<String, Object> settings) {
+        ExtentReports report = new ExtentReports();
+        report.attachReporter(ExtentReportManager.createSparkReporter(file.toString()));
+        settings.forEach((key, value) -> report.setSystemInfo(key, String.valueOf(value)));
+        for (Phase phase : Phase.values()) {
+            LoadResults.PhaseResults phaseResults = results.getPhase(phase);
+            ExtentTest test = report.createTest(phase.name());
+            test.assignCategory("load");
+            StringBuilder outcomes = new StringBuilder("<h6>Outcomes</h6><table class='table table-sm'>"
+                    + "<tr><th>Outcome</th><th>Iterations</th></tr>");
+            phaseResults.getOutcomes().forEach((outcome, count) ->
+                    outcomes.append("<tr><td>").append(outcome).append("</td><td>").append(count).append("</td></tr>"));
+            test.log(Status.INFO, summary(phaseResults));
+            test.log(Status.INFO, outcomes.append("</table>").toString());
+            if (phaseResults.getIterations() > 0 && phaseResults.getSuccesses() == 0) {
+                test.fail("No successful logins");
+            } else if (phaseResults.getErrorRate() > 0) {
+                test.warning(String.format("Error rate %.1f%%", phaseResults.getErrorRate() * 100));
+            } else {
+                test.pass("All iterations logged in");
+            }
+        }
+        report.flush();
+    }
+
+    private static String summary(LoadResults.PhaseResults phase) {
+        LatencyHistogram latency = phase.getLatency();
+        return String.format("%d iterations in %.1f s, %.2f logins/s, error rate %.1f%%, latency p50 %.0f ms, "
+                        + "p95 %.0f ms, p99 %.0f ms, max %.0f ms",
+                phase.getIterations(), phase.getMillis() / 1000.0, phase.getThroughput(), phase.getErrorRate() * 100,
+                latency.getPercentileMillis(50), latency.getPercentileMillis(95), latency.getPercentileMillis(99),
+                latency.getMaxMillis());
+    }
+
+    /**
+     * A browser session that opens the login page with no cookies and logs in with the configured credentials.
+     */
+    private static class BrowserLoginSession implements LoginSession {
+        private final WebDriver driver;
+        private final Waiter wait;
+
+        BrowserLoginSession() {
+            driver = DriverFactory.createDriver(ConfigReader.getBrowser().toLowerCase());
+            driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+            wait = new Waiter(driver, Duration.ofSeconds(ConfigReader.getIntProperty("wait.timeoutSeconds", 15)));
+        }
+
+        @Override
+        public String login() {
+            driver.manage().deleteAllCookies();
+            driver.get(ConfigReader.getUrl());
+            LoginPage loginPage = new LoginPage(driver, wait);
+            loginPage.performLogin(ConfigReader.getUsername(), ConfigReader.getPassword());
+            LoginPage.LoginOutcome outcome = loginPage.awaitLoginOutcome();
+            return outcome == null ? "NO_OUTCOME" : outcome.name();
+        }
+
+        @Override
+        public void close() {
+            try {
+                driver.quit();
+            } catch (WebDriverException e) {
+                logger.warn("Failed to quit load session: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.salesforce.load;
+
+/**
+ * Phases of a load run: users start evenly over RAMP_UP, all run during STEADY_STATE, and stop evenly over
+ * RAMP_DOWN (whatever is left of load.durationSeconds). An iteration belongs to the phase it started in.
+ */
+public enum Phase {
+    RAMP_UP,
+    STEADY_STATE,
+    RAMP_DOWN
+}
@@ -0,0 +1,95 @@
+package com.salesforce.pages;
+
+import com.salesforce.pages.LocatorRegistry.Locator;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Replaces PageFactory's non-caching proxies. Each page element field gets a proxy that finds its
+ * element once per page load and reuses it; a stale element is looked up again and the call retried once.
+ * Page objects call {@link #invalidate()} after actions that navigate.
+ */
+public class ElementCache {
+    private final WebDriver driver;
+    private final Map<String, Locator> locators;
+    private final Map<String, WebElement> resolved = new ConcurrentHashMap<>();
+
+    private ElementCache(WebDriver driver, Map<String, Locator> locators) {
+        this.driver = driver;
+        this.locators = locators;
+    }
+
+    public static ElementCache initElements(WebDriver driver, Object page) {
+        ElementCache cache = new ElementCache(driver, LocatorRegistry.locatorsFor(page.getClass()));
+        for (Map.Entry<String, Locator> entry : cache.locators.entrySet()) {
+            try {
+                entry.getValue().getField().set(page, cache.proxy(entry.getKey()));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot initialize element " + entry.getKey(), e);
+            }
+        }
+        return cache;
+    }
+
+    public void invalidate() {
+        resolved.clear();
+    }
+
+    private WebElement resolve(String name) {
+        Locator locator = locators.get(name);
+        WebElement element = resolved.get(name);
+        if (element != null) {
+            locator.getStats().recordCacheHit();
+            return element;
+        }
+        long startNanos = System.nanoTime();
+        element = driver.findElement(locator.getBy());
+        locator.getStats().recordLookup(System.nanoTime() - startNanos);
+        resolved.put(name, element);
+        return element;
+    }
+
+    private WebElement proxy(String name) {
+        return (WebElement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {WebElement.class, WrapsElement.class, Locatable.class},
+                (proxy, method, args) -> invoke(name, proxy, method, args));
+    }
+
+    private Object invoke(String name, Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "Cached element " + name + " (" + locators.get(name) + ")";
+            case "getWrappedElement":
+                return resolve(name);
+            default:
+                break;
+        }
+        try {
+            return method.invoke(resolve(name), args);
+        } catch (InvocationTargetException e) {
+            if (!(e.getCause() instanceof StaleElementReferenceException)) {
+                throw e.getCause();
+            }
+        }
+        resolved.remove(name);
+        locators.get(name).getStats().recordStaleRefresh();
+        try {
+            return method.invoke(resolve(name), args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.salesforce.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles each page object's {@code @FindBy(xpath)} fields once per class into the fastest equivalent
+ * strategy: a CSS selector when the XPath only matches a tag and exact attribute values
+ * ({@code //input[@id='username']} becomes {@code input#username}), the original XPath otherwise.
+ * Also keeps per-locator lookup statistics for the report.
+ */
+public class LocatorRegistry {
+    private static final Pattern SIMPLE_XPATH = Pattern.compile("//([a-zA-Z][\\w-]*)((?:\\[@[\\w-]+='[^']*'\\])+)");
+    private static final Pattern PREDICATE = Pattern.compile("\\[@([\\w-]+)='([^']*)'\\]");
+    private static final Pattern CSS_IDENTIFIER = Pattern.compile("[A-Za-z][\\w-]*");
+    private static final Map<Class<?>, Map<String, Locator>> locatorsByPage = new ConcurrentHashMap<>();
+    private static final Map<String, LookupStats> stats = new ConcurrentSkipListMap<>();
+
+    public static Map<String, Locator> locatorsFor(Class<?> pageClass) {
+        return locatorsByPage.computeIfAbsent(pageClass, LocatorRegistry::compilePage);
+    }
+
+    public static Map<String, LookupStats> getStats() {
+        return Collections.unmodifiableMap(stats);
+    }
+
+    private static Map<String, Locator> compilePage(Class<?> pageClass) {
+        Map<String, Locator> locators = new LinkedHashMap<>();
+        for (Field field : pageClass.getDeclaredFields()) {
+            FindBy findBy = field.getAnnotation(FindBy.class);
+            if (findBy == null || field.getType() != WebElement.class) {
+                continue;
+            }
+            if (findBy.xpath().isEmpty()) {
+                throw new IllegalArgumentException("Only @FindBy(xpath) is supported: " + pageClass.getSimpleName() + "." + field.getName());
+            }
+            field.setAccessible(true);
+            String key = pageClass.getSimpleName() + "." + field.getName();
+            locators.put(field.getName(), compile(field, findBy.xpath(), stats.computeIfAbsent(key, k -> new LookupStats())));
+        }
+        return Collections.unmodifiableMap(locators);
+    }
+
+    private static Locator compile(Field field, String xpath, LookupStats lookupStats) {
+        Matcher matcher = SIMPLE_XPATH.matcher(xpath);
+        if (!matcher.matches()) {
+            return new Locator(field, By.xpath(xpath), null, xpath, lookupStats);
+        }
+        StringBuilder css = new StringBuilder(matcher.group(1));
+        Matcher predicate = PREDICATE.matcher(matcher.group(2));
+        while (predicate.find()) {
+            String attribute = predicate.group(1);
+            String value = predicate.group(2);
+            if ("id".equals(attribute) && CSS_IDENTIFIER.matcher(value).matches()) {
+                css.append('#').append(value);
+            } else {
+                css.append('[').append(attribute).append("='").append(value.replace("\\", "\\\\")).append("']");
+            }
+        }
+        return new Locator(field, By.cssSelector(css.toString()), css.toString(), null, lookupStats);
+    }
+
+    public static class Locator {
+        private final Field field;
+        private final By by;
+        private final String css;
+        private final String xpath;
+        private final LookupStats stats;
+
+        private Locator(Field field, By by, String css, String xpath, LookupStats stats) {
+            this.field = field;
+            this.by = by;
+            this.css = css;
+            this.xpath = xpath;
+            this.stats = stats;
+        }
+
+        Field getField() {
+            return field;
+        }
+
+        public By getBy() {
+            return by;
+        }
+
+        /**
+         * CSS selector, or null when the locator is an XPath.
+         */
+        public String getCss() {
+            return css;
+        }
+
+        /**
+         * XPath, or null when the locator compiled to CSS.
+         */
+        public String getXpath() {
+            return xpath;
+        }
+
+        LookupStats getStats() {
+            return stats;
+        }
+
+        @Override
+        public String toString() {
+            return by.toString();
+        }
+    }
+
+    public static class LookupStats {
+        private final LongAdder lookups = new LongAdder();
+        private final LongAdder cacheHits = new LongAdder();
+        private final LongAdder staleRefreshes = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void recordLookup(long nanos) {
+            lookups.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        void recordCacheHit() {
+            cacheHits.increment();
+        }
+
+        void recordStaleRefresh() {
+            staleRefreshes.increment();
+        }
+
+        public long getLookups() {
+            return lookups.sum();
+        }
+
+        public long getCacheHits() {
+            return cacheHits.sum();
+        }
+
+        public long getStaleRefreshes() {
+            return staleRefreshes.sum();
+        }
+
+        public double getAverageMillis() {
+            long count = lookups.sum();
+            return count == 0 ? 0 : totalNanos.sum() / (count * 1_000_000.0);
+        }
+
+        public double getMaxMillis() {
+            return maxNanos.get() / 1_000_000.0;
+        }
+    }
+}
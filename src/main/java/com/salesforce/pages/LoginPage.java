@@ -1,19 +1,41 @@
 package com.salesforce.pages;
 
+import com.salesforce.utils.ConfigReader;
+import com.salesforce.utils.Waiter;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class LoginPage {
+    public static final String USERNAME_FIELD = "usernameField";
+    public static final String PASSWORD_FIELD = "passwordField";
+    public static final String LOGIN_BUTTON = "loginButton";
+    public static final String REMEMBER_ME_CHECKBOX = "rememberMeCheckbox";
+    public static final String FORGOT_PASSWORD_LINK = "forgotPasswordLink";
     private static final Logger logger = LogManager.getLogger(LoginPage.class);
-    @SuppressWarnings("unused")
+    private static final Duration outcomeTimeout =
+            Duration.ofSeconds(ConfigReader.getIntProperty("wait.outcomeTimeoutSeconds", 15));
     private WebDriver driver;
-    private WebDriverWait wait;
+    private Waiter wait;
+    private final ElementCache elements;
+
+    /**
+     * What the page shows after the login button is clicked.
+     */
+    public enum LoginOutcome {
+        ERROR_MESSAGE,
+        INVALID_CREDENTIALS,
+        HOME_PAGE
+    }
 
     @FindBy(xpath = "//input[@id='username']")
     private WebElement usernameField;
@@ -51,10 +73,10 @@ public class LoginPage {
     @FindBy(xpath = "//title[contains(text(),'Login') or contains(text(),'Salesforce')]")
     private WebElement pageTitle;
 
-    public LoginPage(WebDriver driver, WebDriverWait wait) {
+    public LoginPage(WebDriver driver, Waiter wait) {
         this.driver = driver;
         this.wait = wait;
-        PageFactory.initElements(driver, this);
+        this.elements = ElementCache.initElements(driver, this);
     }
 
     public void enterUsername(String username) {
@@ -64,7 +86,7 @@ public class LoginPage {
             usernameField.sendKeys(username);
             logger.info("Username entered successfully");
         } catch (Exception e) {
-            logger.error("Failed to enter username: " + e.getMessage());
+            logger.error("Failed to enter username: {}", e.getMessage());
             throw e;
         }
     }
@@ -76,7 +98,7 @@ public class LoginPage {
             passwordField.sendKeys(password);
             logger.info("Password entered successfully");
         } catch (Exception e) {
-            logger.error("Failed to enter password: " + e.getMessage());
+            logger.error("Failed to enter password: {}", e.getMessage());
             throw e;
         }
     }
@@ -85,9 +107,10 @@ public class LoginPage {
         try {
             wait.until(ExpectedConditions.elementToBeClickable(loginButton));
             loginButton.click();
+            elements.invalidate();
             logger.info("Login button clicked");
         } catch (Exception e) {
-            logger.error("Failed to click login button: " + e.getMessage());
+            logger.error("Failed to click login button: {}", e.getMessage());
             throw e;
         }
     }
@@ -100,7 +123,7 @@ public class LoginPage {
                 logger.info("Remember Me checkbox selected");
             }
         } catch (Exception e) {
-            logger.error("Failed to check Remember Me: " + e.getMessage());
+            logger.error("Failed to check Remember Me: {}", e.getMessage());
             throw e;
         }
     }
@@ -113,7 +136,7 @@ public class LoginPage {
                 logger.info("Remember Me checkbox unselected");
             }
         } catch (Exception e) {
-            logger.error("Failed to uncheck Remember Me: " + e.getMessage());
+            logger.error("Failed to uncheck Remember Me: {}", e.getMessage());
             throw e;
         }
     }
@@ -122,9 +145,10 @@ public class LoginPage {
         try {
             wait.until(ExpectedConditions.elementToBeClickable(forgotPasswordLink));
             forgotPasswordLink.click();
+            elements.invalidate();
             logger.info("Forgot Password link clicked");
         } catch (Exception e) {
-            logger.error("Failed to click Forgot Password: " + e.getMessage());
+            logger.error("Failed to click Forgot Password: {}", e.getMessage());
             throw e;
         }
     }
@@ -134,19 +158,27 @@ public class LoginPage {
             enterUsername(username);
             enterPassword(password);
             clickLoginButton();
-            logger.info("Login performed with username: " + username);
+            logger.info("Login performed with username: {}", username);
         } catch (Exception e) {
-            logger.error("Login failed: " + e.getMessage());
+            logger.error("Login failed: {}", e.getMessage());
             throw e;
         }
     }
 
+    /**
+     * Waits until the page shows any login outcome and returns the first one seen, or null if none appears.
+     */
+    public LoginOutcome awaitLoginOutcome() {
+        LoginOutcome outcome = wait.untilAny(outcomeConditions(), outcomeTimeout);
+        logger.info("Login outcome: {}", outcome);
+        return outcome;
+    }
+
     public boolean isErrorMessageDisplayed() {
         try {
-            wait.until(ExpectedConditions.visibilityOf(errorMessage));
-            return errorMessage.isDisplayed();
+            return isOutcomeDisplayed(LoginOutcome.ERROR_MESSAGE);
         } catch (Exception e) {
-            logger.error("Error checking error message display: " + e.getMessage());
+            logger.error("Error checking error message display: {}", e.getMessage());
             return false;
         }
     }
@@ -155,82 +187,96 @@ public class LoginPage {
         try {
             wait.until(ExpectedConditions.visibilityOf(errorMessage));
             String text = errorMessage.getText();
-            logger.info("Error message displayed: " + text);
+            logger.info("Error message displayed: {}", text);
             return text;
         } catch (Exception e) {
-            logger.error("Failed to get error message: " + e.getMessage());
+            logger.error("Failed to get error message: {}", e.getMessage());
             return "";
         }
     }
 
     public boolean isInvalidCredentialsErrorDisplayed() {
         try {
-            wait.until(ExpectedConditions.visibilityOf(invalidCredentialsError));
-            return invalidCredentialsError.isDisplayed();
+            return isOutcomeDisplayed(LoginOutcome.INVALID_CREDENTIALS);
         } catch (Exception e) {
             return false;
         }
     }
 
+    /**
+     * Reads presence, visibility, text and state of every declared element in one round trip.
+     * Elements are keyed by field name, e.g. {@link #USERNAME_FIELD}.
+     */
+    public PageSnapshot snapshot() {
+        return PageSnapshot.capture(driver, LocatorRegistry.locatorsFor(LoginPage.class));
+    }
+
+    /**
+     * Polls snapshots until the given elements are visible and returns the last one taken.
+     */
+    public PageSnapshot awaitSnapshot(String... visibleElements) {
+        try {
+            return wait.until(d -> {
+                PageSnapshot snapshot = snapshot();
+                return snapshot.areVisible(visibleElements) ? snapshot : null;
+            });
+        } catch (TimeoutException e) {
+            PageSnapshot snapshot = snapshot();
+            logger.warn("Elements not visible within timeout: {}", snapshot);
+            return snapshot;
+        }
+    }
+
     public boolean isLoginPageDisplayed() {
         try {
-            wait.until(ExpectedConditions.visibilityOf(usernameField));
-            wait.until(ExpectedConditions.visibilityOf(passwordField));
-            wait.until(ExpectedConditions.visibilityOf(loginButton));
-            return usernameField.isDisplayed() && passwordField.isDisplayed() && loginButton.isDisplayed();
+            return awaitSnapshot(USERNAME_FIELD, PASSWORD_FIELD, LOGIN_BUTTON)
+                    .areVisible(USERNAME_FIELD, PASSWORD_FIELD, LOGIN_BUTTON);
         } catch (Exception e) {
-            logger.error("Login page display check failed: " + e.getMessage());
+            logger.error("Login page display check failed: {}", e.getMessage());
             return false;
         }
     }
 
     public boolean isHomePageDisplayed() {
         try {
-            wait.until(ExpectedConditions.visibilityOf(userNavLabel));
-            return userNavLabel.isDisplayed();
+            return isOutcomeDisplayed(LoginOutcome.HOME_PAGE);
         } catch (Exception e) {
-            logger.error("Home page check failed: " + e.getMessage());
+            logger.error("Home page check failed: {}", e.getMessage());
             return false;
         }
     }
 
     public boolean isUsernameFieldDisplayed() {
-        try {
-            return usernameField.isDisplayed();
-        } catch (Exception e) {
-            return false;
-        }
+        return wait.isSatisfied(ExpectedConditions.visibilityOf(usernameField), wait.getDefaultTimeout());
     }
 
     public boolean isPasswordFieldDisplayed() {
-        try {
-            return passwordField.isDisplayed();
-        } catch (Exception e) {
-            return false;
-        }
+        return wait.isSatisfied(ExpectedConditions.visibilityOf(passwordField), wait.getDefaultTimeout());
     }
 
     public boolean isLoginButtonDisplayed() {
-        try {
-            return loginButton.isDisplayed();
-        } catch (Exception e) {
-            return false;
-        }
+        return wait.isSatisfied(ExpectedConditions.visibilityOf(loginButton), wait.getDefaultTimeout());
     }
 
     public boolean isRememberMeCheckboxDisplayed() {
-        try {
-            return rememberMeCheckbox.isDisplayed();
-        } catch (Exception e) {
-            return false;
-        }
+        return wait.isSatisfied(ExpectedConditions.visibilityOf(rememberMeCheckbox), wait.getDefaultTimeout());
     }
 
     public boolean isForgotPasswordLinkDisplayed() {
-        try {
-            return forgotPasswordLink.isDisplayed();
-        } catch (Exception e) {
-            return false;
-        }
+        return wait.isSatisfied(ExpectedConditions.visibilityOf(forgotPasswordLink), wait.getDefaultTimeout());
+    }
+
+    private boolean isOutcomeDisplayed(LoginOutcome expected) {
+        LoginOutcome outcome = awaitLoginOutcome();
+        return outcome == expected
+                || outcome != null && wait.isSatisfied(outcomeConditions().get(expected), Duration.ZERO);
+    }
+
+    private Map<LoginOutcome, ExpectedCondition<WebElement>> outcomeConditions() {
+        Map<LoginOutcome, ExpectedCondition<WebElement>> outcomes = new LinkedHashMap<>();
+        outcomes.put(LoginOutcome.ERROR_MESSAGE, ExpectedConditions.visibilityOf(errorMessage));
+        outcomes.put(LoginOutcome.INVALID_CREDENTIALS, ExpectedConditions.visibilityOf(invalidCredentialsError));
+        outcomes.put(LoginOutcome.HOME_PAGE, ExpectedConditions.visibilityOf(userNavLabel));
+        return outcomes;
     }
 }
@@ -0,0 +1,148 @@
+package com.salesforce.pages;
+
+import com.salesforce.pages.LocatorRegistry.Locator;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * State of a page's declared elements, read in a single script round trip.
+ * Visibility follows the rendered layout (display, visibility and client rects), which matches
+ * WebElement.isDisplayed() for the form controls and messages page objects assert on.
+ */
+public class PageSnapshot {
+    private static final String SNAPSHOT_SCRIPT =
+            "var locators = arguments[0], result = {};"
+            + "for (var name in locators) {"
+            + "  var locator = locators[name];"
+            + "  var el = locator[0] === 'css' ? document.querySelector(locator[1])"
+            + "      : document.evaluate(locator[1], document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+            + "  if (!el) { result[name] = {present: false}; continue; }"
+            + "  var style = window.getComputedStyle(el);"
+            + "  result[name] = {"
+            + "    present: true,"
+            + "    visible: style.display !== 'none' && style.visibility !== 'hidden' && el.getClientRects().length > 0,"
+            + "    text: (el.innerText || el.textContent || '').trim(),"
+            + "    value: el.value === undefined ? null : String(el.value),"
+            + "    enabled: !el.disabled,"
+            + "    selected: !!(el.checked || el.selected)"
+            + "  };"
+            + "}"
+            + "return result;";
+
+    private final Map<String, ElementState> elements;
+
+    private PageSnapshot(Map<String, ElementState> elements) {
+        this.elements = elements;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static PageSnapshot capture(WebDriver driver, Map<String, Locator> locators) {
+        Map<String, Object> scriptLocators = new LinkedHashMap<>();
+        for (Map.Entry<String, Locator> entry : locators.entrySet()) {
+            Locator locator = entry.getValue();
+            scriptLocators.put(entry.getKey(), locator.getCss() != null
+                    ? Arrays.asList("css", locator.getCss())
+                    : Arrays.asList("xpath", locator.getXpath()));
+        }
+        Object raw = ((JavascriptExecutor) driver).executeScript(SNAPSHOT_SCRIPT, scriptLocators);
+        Map<String, ElementState> elements = new LinkedHashMap<>();
+        if (raw instanceof Map) {
+            for (Map.Entry<String, Object> entry : ((Map<String, Object>) raw).entrySet()) {
+                elements.put(entry.getKey(), ElementState.fromMap((Map<String, Object>) entry.getValue()));
+            }
+        }
+        return new PageSnapshot(Collections.unmodifiableMap(elements));
+    }
+
+    public ElementState get(String name) {
+        ElementState state = elements.get(name);
+        return state != null ? state : ElementState.ABSENT;
+    }
+
+    public boolean isVisible(String name) {
+        return get(name).isVisible();
+    }
+
+    public boolean areVisible(String... names) {
+        for (String name : names) {
+            if (!isVisible(name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public Map<String, ElementState> getElements() {
+        return elements;
+    }
+
+    @Override
+    public String toString() {
+        return elements.toString();
+    }
+
+    public static class ElementState {
+        private static final ElementState ABSENT = new ElementState(false, false, "", null, false, false);
+        private final boolean present;
+        private final boolean visible;
+        private final String text;
+        private final String value;
+        private final boolean enabled;
+        private final boolean selected;
+
+        private ElementState(boolean present, boolean visible, String text, String value, boolean enabled, boolean selected) {
+            this.present = present;
+            this.visible = visible;
+            this.text = text;
+            this.value = value;
+            this.enabled = enabled;
+            this.selected = selected;
+        }
+
+        private static ElementState fromMap(Map<String, Object> state) {
+            if (!Boolean.TRUE.equals(state.get("present"))) {
+                return ABSENT;
+            }
+            return new ElementState(true,
+                    Boolean.TRUE.equals(state.get("visible")),
+                    state.get("text") != null ? state.get("text").toString() : "",
+                    state.get("value") != null ? state.get("value").toString() : null,
+                    Boolean.TRUE.equals(state.get("enabled")),
+                    Boolean.TRUE.equals(state.get("selected")));
+        }
+
+        public boolean isPresent() {
+            return present;
+        }
+
+        public boolean isVisible() {
+            return visible;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public boolean isSelected() {
+            return selected;
+        }
+
+        @Override
+        public String toString() {
+            return present ? (visible ? "visible" : "hidden") + (selected ? ",selected" : "") : "absent";
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.salesforce.results;
+
+import com.salesforce.driver.BrowserProfile;
+import com.salesforce.standin.LoginStandInServer;
+import com.salesforce.utils.ConfigReader;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Last real pass of each test method with the fingerprint of its inputs, kept across runs in
+ * resultcache.file. The fingerprint hashes the compiled test class together with every class of the tests,
+ * base and pages packages it reaches (nested classes, BaseTest and the page objects it uses), the config file,
+ * the browser and profile, and the target URL. When resultcache.enabled=true a method whose fingerprint matches
+ * a pass younger than resultcache.ttlHours is not run; resultcache.force=true runs everything regardless.
+ */
+public class ResultCache {
+    private static final Pattern TRACKED_CLASS = Pattern.compile("com/salesforce/(?:tests|base|pages)/[A-Za-z0-9_$/]+");
+    private static final Map<Class<?>, String> classFingerprints = new ConcurrentHashMap<>();
+    private static volatile String environmentFingerprint;
+    private final Path file;
+    private final Map<String, Entry> entries = new TreeMap<>();
+
+    private ResultCache(Path file) {
+        this.file = file;
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(ConfigReader.getProperty("resultcache.enabled", "false"));
+    }
+
+    public static boolean isForced() {
+        return Boolean.parseBoolean(ConfigReader.getProperty("resultcache.force", "false"));
+    }
+
+    public static Duration getTtl() {
+        return Duration.ofHours(ConfigReader.getIntProperty("resultcache.ttlHours", 24));
+    }
+
+    public static ResultCache load() {
+        ResultCache cache = new ResultCache(Paths.get(ConfigReader.getProperty("resultcache.file", "reports/result-cache.json")));
+        if (Files.isRegularFile(cache.file)) {
+            try {
+                Map<String, Object> json = new Json().toType(new String(Files.readAllBytes(cache.file), StandardCharsets.UTF_8), Json.MAP_TYPE);
+                json.forEach((key, value) -> {
+                    Map<?, ?> entry = (Map<?, ?>) value;
+                    cache.entries.put(key, new Entry((String) entry.get("fingerprint"), Instant.parse((String) entry.get("passed"))));
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read result cache " + cache.file, e);
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * The cached pass for the method if its fingerprint still matches and the pass is within the TTL, else null.
+     */
+    public synchronized Entry findPass(String methodKey, String fingerprint) {
+        Entry entry = entries.get(methodKey);
+        if (entry == null || !entry.fingerprint.equals(fingerprint)
+                || entry.passed.plus(getTtl()).isBefore(Instant.now())) {
+            return null;
+        }
+        return entry;
+    }
+
+    public synchronized void recordPass(String methodKey, String fingerprint) {
+        entries.put(methodKey, new Entry(fingerprint, Instant.now()));
+    }
+
+    public synchronized void remove(String methodKey) {
+        entries.remove(methodKey);
+    }
+
+    public synchronized void save() {
+        Map<String, Object> json = new LinkedHashMap<>();
+        entries.forEach((key, entry) -> {
+            Map<String, Object> value = new LinkedHashMap<>();
+            value.put("fingerprint", entry.fingerprint);
+            value.put("passed", entry.passed.toString());
+            json.put(key, value);
+        });
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+            Files.write(temp, new Json().toJson(json).getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write result cache " + file, e);
+        }
+    }
+
+    /**
+     * Fingerprint of a test method's inputs; methods of one class share the class part, which is computed once.
+     */
+    public static String fingerprint(Class<?> testClass, String methodName) {
+        String classPart = classFingerprints.computeIfAbsent(testClass, ResultCache::hashReachableClasses);
+        if (environmentFingerprint == null) {
+            environmentFingerprint = hashEnvironment();
+        }
+        return sha256((classPart + "|" + environmentFingerprint + "|" + methodName).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Hashes the class file of the test class and, transitively, of every tests/base/pages class named in the
+     * constant pools reached.
+     */
+    private static String hashReachableClasses(Class<?> testClass) {
+        ClassLoader loader = testClass.getClassLoader();
+        Set<String> seen = new TreeSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        pending.add(testClass.getName().replace('.', '/'));
+        Map<String, String> hashes = new TreeMap<>();
+        while (!pending.isEmpty()) {
+            String name = pending.poll();
+            if (!seen.add(name)) {
+                continue;
+            }
+            byte[] bytes = readClass(loader, name);
+            if (bytes == null) {
+                continue;
+            }
+            hashes.put(name, sha256(bytes));
+            Matcher matcher = TRACKED_CLASS.matcher(new String(bytes, StandardCharsets.ISO_8859_1));
+            while (matcher.find()) {
+                pending.add(matcher.group());
+            }
+        }
+        return sha256(hashes.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] readClass(ClassLoader loader, String name) {
+        try (InputStream in = loader.getResourceAsStream(name + ".class")) {
+            return in == null ? null : in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read class " + name, e);
+        }
+    }
+
+    private static String hashEnvironment() {
+        String target = LoginStandInServer.isEnabled() ? "stand-in" : ConfigReader.getProperty("url");
+        return sha256(ConfigReader.readConfigFile()) + "|" + ConfigReader.getBrowser().toLowerCase() + "|"
+                + BrowserProfile.current() + "|" + target;
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public static class Entry {
+        private final String fingerprint;
+        private final Instant passed;
+
+        Entry(String fingerprint, Instant passed) {
+            this.fingerprint = fingerprint;
+            this.passed = passed;
+        }
+
+        public Instant getPassed() {
+            return passed;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.salesforce.results;
+
+import com.salesforce.utils.ConfigReader;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * The outcome of every test invocation of a run, kept in the run's report folder as results.json and keyed
+ * "fully.qualified.Class.displayName". Each entry holds the status (PASS, FAIL or SKIP), duration, attempts
+ * and, for failures, a signature of the exception. With rerun.failed=true the next run reads the store of
+ * rerun.from (default the latest run folder that has one), runs only the entries that did not pass and
+ * writes their new outcomes back into the same store.
+ */
+public class ResultsStore {
+    public static final String STORE_FILE = "results.json";
+    private static final String REPORT_BASE_DIR = "reports";
+    private final Path file;
+    private final Map<String, Result> results = new TreeMap<>();
+
+    private ResultsStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Opens the store in a run folder, reading its results.json if there is one.
+     */
+    public static ResultsStore open(Path runFolder) {
+        ResultsStore store = new ResultsStore(runFolder.resolve(STORE_FILE));
+        if (Files.isRegularFile(store.file)) {
+            try {
+                Map<String, Object> json = new Json().toType(new String(Files.readAllBytes(store.file), StandardCharsets.UTF_8), Json.MAP_TYPE);
+                Object tests = json.get("tests");
+                if (tests instanceof Map) {
+                    ((Map<?, ?>) tests).forEach((key, value) -> store.results.put(String.valueOf(key), Result.fromJson((Map<?, ?>) value)));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read results store " + store.file, e);
+            }
+        }
+        return store;
+    }
+
+    public static boolean isRerun() {
+        return Boolean.parseBoolean(ConfigReader.getProperty("rerun.failed", "false"));
+    }
+
+    /**
+     * The run folder a rerun reports into: rerun.from, or the latest reports/run_* folder with a results store.
+     * A sharded rerun (shard.count &gt; 1) only uses the folder of its own shard, run_*_shard&lt;shard.index&gt;, so
+     * each shard JVM reruns its own failures into its own store; an unsharded one ignores shard folders.
+     * Null when not rerunning or when no earlier run has a store.
+     */
+    public static Path findRerunFolder() {
+        if (!isRerun()) {
+            return null;
+        }
+        String shardSuffix = ConfigReader.getIntProperty("shard.count", 1) > 1
+                ? "_shard" + ConfigReader.getIntProperty("shard.index", 0) : null;
+        String from = ConfigReader.getProperty("rerun.from", null);
+        if (from != null) {
+            Path folder = Paths.get(from);
+            if (!Files.isRegularFile(folder.resolve(STORE_FILE))) {
+                throw new IllegalArgumentException("rerun.from has no " + STORE_FILE + ": " + folder);
+            }
+            if (shardSuffix != null && !folder.getFileName().toString().endsWith(shardSuffix)) {
+                throw new IllegalArgumentException("With shard.count > 1, rerun.from must be this shard's run folder (ending "
+                        + shardSuffix + "), not " + folder);
+            }
+            return folder;
+        }
+        Path base = Paths.get(REPORT_BASE_DIR);
+        if (!Files.isDirectory(base)) {
+            return null;
+        }
+        try (Stream<Path> folders = Files.list(base)) {
+            return folders.filter(folder -> folder.getFileName().toString().startsWith("run_"))
+                    .filter(folder -> shardSuffix != null ? folder.getFileName().toString().endsWith(shardSuffix)
+                            : !folder.getFileName().toString().contains("_shard"))
+                    .filter(folder -> Files.isRegularFile(folder.resolve(STORE_FILE)))
+                    .max(Path::compareTo)
+                    .orElse(null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to search " + base + " for earlier runs", e);
+        }
+    }
+
+    public synchronized void record(String key, Result result) {
+        Result previous = results.get(key);
+        result.runs = previous == null ? 1 : previous.runs + 1;
+        results.put(key, result);
+    }
+
+    public synchronized Map<String, Result> getResults() {
+        return new TreeMap<>(results);
+    }
+
+    /**
+     * Keys of the entries whose last outcome was not a pass.
+     */
+    public synchronized Set<String> getNotPassed() {
+        Set<String> keys = new TreeSet<>();
+        results.forEach((key, result) -> {
+            if (!Result.PASS.equals(result.status)) {
+                keys.add(key);
+            }
+        });
+        return keys;
+    }
+
+    /**
+     * Writes the store atomically, so a run killed mid-write leaves the previous copy.
+     */
+    public synchronized void save() {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("updated", Instant.now().toString());
+        Map<String, Object> tests = new LinkedHashMap<>();
+        results.forEach((key, result) -> tests.put(key, result.toJson()));
+        json.put("tests", tests);
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), STORE_FILE, ".tmp");
+            Files.write(temp, new Json().toJson(json).getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write results store " + file, e);
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public static class Result {
+        public static final String PASS = "PASS";
+        public static final String FAIL = "FAIL";
+        public static final String SKIP = "SKIP";
+        private static final String[] LIBRARY_PACKAGES = {"java.", "javax.", "jdk.", "sun.", "org.testng.", "org.openqa."};
+        private final String status;
+        private final long durationMillis;
+        private final int attempts;
+        private final String signature;
+        private final String message;
+        private final String finished;
+        private int runs;
+
+        public Result(String status, long durationMillis, int attempts, Throwable error) {
+            this(status, durationMillis, attempts, error == null ? null : signatureOf(error),
+                    error == null ? null : error.getMessage(), Instant.now().toString(), 1);
+        }
+
+        private Result(String status, long durationMillis, int attempts, String signature, String message,
+                       String finished, int runs) {
+            this.status = status;
+            this.durationMillis = durationMillis;
+            this.attempts = attempts;
+            this.signature = signature;
+            this.message = message;
+            this.finished = finished;
+            this.runs = runs;
+        }
+
+        /**
+         * Exception type, first message line and the first stack frame outside the JDK, TestNG and Selenium:
+         * stable across runs of the same failure, so failures can be grouped and compared between a run and its
+         * rerun.
+         */
+        static String signatureOf(Throwable error) {
+            StringBuilder signature = new StringBuilder(error.getClass().getName());
+            String message = error.getMessage();
+            if (message != null && !message.trim().isEmpty()) {
+                String firstLine = message.trim().split("\\R", 2)[0];
+                signature.append(": ").append(firstLine.length() > 200 ? firstLine.substring(0, 200) : firstLine);
+            }
+            for (StackTraceElement frame : error.getStackTrace()) {
+                if (!isLibraryFrame(frame.getClassName())) {
+                    signature.append(" at ").append(frame.getClassName()).append('.').append(frame.getMethodName())
+                            .append(':').append(frame.getLineNumber());
+                    break;
+                }
+            }
+            return signature.toString();
+        }
+
+        private static boolean isLibraryFrame(String className) {
+            for (String prefix : LIBRARY_PACKAGES) {
+                if (className.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+
+        public String getSignature() {
+            return signature;
+        }
+
+        public int getRuns() {
+            return runs;
+        }
+
+        Map<String, Object> toJson() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("status", status);
+            json.put("durationMillis", durationMillis);
+            json.put("attempts", attempts);
+            json.put("runs", runs);
+            json.put("finished", finished);
+            if (signature != null) {
+                json.put("signature", signature);
+                json.put("message", message);
+            }
+            return json;
+        }
+
+        static Result fromJson(Map<?, ?> json) {
+            return new Result(String.valueOf(json.get("status")), number(json.get("durationMillis")),
+                    (int) number(json.get("attempts")), (String) json.get("signature"), (String) json.get("message"),
+                    (String) json.get("finished"), (int) number(json.get("runs")));
+        }
+
+        private static long number(Object value) {
+            return value instanceof Number ? ((Number) value).longValue() : 0;
+        }
+    }
+}
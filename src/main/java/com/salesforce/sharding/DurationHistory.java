@@ -0,0 +1,128 @@
+package com.salesforce.sharding;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Average per-method durations from earlier runs' testng-results.xml files, keyed "fully.qualified.Class.method".
+ * A method's duration in one file is the sum of its PASS and FAIL invocations (all rows of a data-driven method
+ * run on the same shard), and those sums are averaged across files. Configuration methods and skipped
+ * invocations are ignored.
+ */
+public class DurationHistory {
+    static final String RESULTS_FILE = "testng-results.xml";
+    private final Map<String, Long> averageMillis;
+
+    private DurationHistory(Map<String, Long> averageMillis) {
+        this.averageMillis = Collections.unmodifiableMap(averageMillis);
+    }
+
+    /**
+     * Reads every testng-results.xml among the given paths; directories are searched recursively and missing
+     * paths are skipped.
+     */
+    public static DurationHistory load(List<Path> sources) {
+        Map<String, long[]> totals = new TreeMap<>();
+        for (Path file : findResultFiles(sources)) {
+            readInto(file, totals);
+        }
+        Map<String, Long> averages = new TreeMap<>();
+        totals.forEach((key, total) -> averages.put(key, total[0] / total[1]));
+        return new DurationHistory(averages);
+    }
+
+    static List<Path> findResultFiles(List<Path> sources) {
+        List<Path> files = new ArrayList<>();
+        for (Path source : sources) {
+            if (Files.isRegularFile(source)) {
+                files.add(source);
+            } else if (Files.isDirectory(source)) {
+                try (Stream<Path> paths = Files.walk(source)) {
+                    files.addAll(paths.filter(path -> path.getFileName().toString().equals(RESULTS_FILE))
+                            .sorted()
+                            .collect(Collectors.toList()));
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to search " + source + " for " + RESULTS_FILE + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return files;
+    }
+
+    static DocumentBuilder newDocumentBuilder() {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            return factory.newDocumentBuilder();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to create XML parser: " + e.getMessage(), e);
+        }
+    }
+
+    private static void readInto(Path file, Map<String, long[]> totals) {
+        Document document;
+        try {
+            document = newDocumentBuilder().parse(file.toFile());
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to read " + file + ": " + e.getMessage(), e);
+        }
+        Map<String, Long> fileTotals = new TreeMap<>();
+        NodeList classes = document.getElementsByTagName("class");
+        for (int i = 0; i < classes.getLength(); i++) {
+            Element testClass = (Element) classes.item(i);
+            NodeList methods = testClass.getElementsByTagName("test-method");
+            for (int j = 0; j < methods.getLength(); j++) {
+                Element method = (Element) methods.item(j);
+                String status = method.getAttribute("status");
+                if ("true".equals(method.getAttribute("is-config")) || !("PASS".equals(status) || "FAIL".equals(status))) {
+                    continue;
+                }
+                fileTotals.merge(testClass.getAttribute("name") + "." + method.getAttribute("name"),
+                        Long.parseLong(method.getAttribute("duration-ms")), Long::sum);
+            }
+        }
+        fileTotals.forEach((key, millis) -> {
+            long[] total = totals.computeIfAbsent(key, ignored -> new long[2]);
+            total[0] += millis;
+            total[1]++;
+        });
+    }
+
+    public boolean contains(String methodKey) {
+        return averageMillis.containsKey(methodKey);
+    }
+
+    public long getAverageMillis(String methodKey) {
+        return averageMillis.getOrDefault(methodKey, 0L);
+    }
+
+    public int size() {
+        return averageMillis.size();
+    }
+
+    /**
+     * Median of the known averages, used as the estimate for methods with no history; the given default if empty.
+     */
+    public long getMedianMillis(long defaultMillis) {
+        if (averageMillis.isEmpty()) {
+            return defaultMillis;
+        }
+        List<Long> sorted = new ArrayList<>(averageMillis.values());
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+}
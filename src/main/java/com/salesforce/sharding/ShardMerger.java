@@ -0,0 +1,137 @@
+package com.salesforce.sharding;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.reporter.JsonFormatter;
+import com.salesforce.utils.ExtentReportManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Combines the outputs of sharded runs into one folder: a single ExtentReport.html (plus extent.json) built
+ * from every shard's extent.json with their screenshots, and a single testng-results.xml whose suites and
+ * totals cover all shards. Each shard directory is searched recursively, so it can hold a shard's
+ * reports/run_* folder and its target/surefire-reports side by side.
+ * <p>
+ * Usage: {@code ShardMerger <outputDir> <shardDir>...}
+ */
+public class ShardMerger {
+    private static final Logger logger = LogManager.getLogger(ShardMerger.class);
+    private static final String[] COUNT_ATTRIBUTES = {"ignored", "total", "passed", "failed", "skipped"};
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ShardMerger <outputDir> <shardDir>...");
+            System.exit(2);
+        }
+        List<Path> shardDirs = Arrays.stream(args, 1, args.length).map(Paths::get).collect(Collectors.toList());
+        merge(Paths.get(args[0]), shardDirs);
+    }
+
+    public static void merge(Path outputDir, List<Path> shardDirs) throws IOException {
+        Files.createDirectories(outputDir.resolve("screenshots"));
+        int tests = mergeReports(outputDir, shardDirs);
+        int suites = mergeResults(outputDir, shardDirs);
+        System.out.println("Merged " + shardDirs.size() + " shards (" + tests + " report tests, " + suites
+                + " result suites) into: " + outputDir.toAbsolutePath());
+    }
+
+    private static int mergeReports(Path outputDir, List<Path> shardDirs) throws IOException {
+        ExtentReports merged = new ExtentReports();
+        for (Path archive : findFiles(shardDirs, ExtentReportManager.JSON_REPORT_FILE)) {
+            logger.info("Merging report archive: " + archive);
+            merged.createDomainFromJsonArchive(archive.toString());
+            copyScreenshots(archive.getParent().resolve("screenshots"), outputDir.resolve("screenshots"));
+        }
+        merged.attachReporter(ExtentReportManager.createSparkReporter(outputDir.resolve("ExtentReport.html").toString()),
+                new JsonFormatter(outputDir.resolve(ExtentReportManager.JSON_REPORT_FILE).toString()));
+        merged.setSystemInfo("Shards", String.valueOf(shardDirs.size()));
+        merged.flush();
+        return merged.getReport().getTestList().size();
+    }
+
+    private static void copyScreenshots(Path source, Path target) throws IOException {
+        if (!Files.isDirectory(source)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(source)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Path copy = target.resolve(file.getFileName().toString());
+                if (!Files.exists(copy)) {
+                    Files.copy(file, copy);
+                }
+            }
+        }
+    }
+
+    private static int mergeResults(Path outputDir, List<Path> shardDirs) {
+        Document merged = DurationHistory.newDocumentBuilder().newDocument();
+        Element root = merged.createElement("testng-results");
+        long[] counts = new long[COUNT_ATTRIBUTES.length];
+        int suites = 0;
+        for (Path file : DurationHistory.findResultFiles(shardDirs)) {
+            Element shardRoot;
+            try {
+                shardRoot = DurationHistory.newDocumentBuilder().parse(file.toFile()).getDocumentElement();
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to read " + file + ": " + e.getMessage(), e);
+            }
+            for (int i = 0; i < COUNT_ATTRIBUTES.length; i++) {
+                String value = shardRoot.getAttribute(COUNT_ATTRIBUTES[i]);
+                counts[i] += value.isEmpty() ? 0 : Long.parseLong(value);
+            }
+            NodeList children = shardRoot.getChildNodes();
+            for (int i = 0; i < children.getLength(); i++) {
+                Node child = children.item(i);
+                if (child.getNodeType() == Node.ELEMENT_NODE && "suite".equals(child.getNodeName())) {
+                    root.appendChild(merged.importNode(child, true));
+                    suites++;
+                }
+            }
+        }
+        for (int i = 0; i < COUNT_ATTRIBUTES.length; i++) {
+            root.setAttribute(COUNT_ATTRIBUTES[i], String.valueOf(counts[i]));
+        }
+        merged.appendChild(root);
+        try {
+            Transformer transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+            transformer.transform(new DOMSource(merged),
+                    new StreamResult(outputDir.resolve(DurationHistory.RESULTS_FILE).toFile()));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to write merged " + DurationHistory.RESULTS_FILE + ": " + e.getMessage(), e);
+        }
+        return suites;
+    }
+
+    private static List<Path> findFiles(List<Path> roots, String fileName) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path root : roots) {
+            if (!Files.isDirectory(root)) {
+                throw new IOException("Shard directory not found: " + root);
+            }
+            try (Stream<Path> paths = Files.walk(root)) {
+                paths.filter(path -> path.getFileName().toString().equals(fileName)).sorted().forEach(files::add);
+            }
+        }
+        return files;
+    }
+}
@@ -0,0 +1,73 @@
+package com.salesforce.sharding;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Splits test methods into balanced shards by expected duration using longest-processing-time-first bin
+ * packing: methods are taken longest first and each goes to the shard with the least expected time so far.
+ * The plan depends only on the method keys and the history, so every shard computes the same plan.
+ */
+public class ShardPlanner {
+
+    public static List<Shard> plan(Collection<String> methodKeys, DurationHistory history, int shardCount, long defaultMillis) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1: " + shardCount);
+        }
+        long unknownMillis = history.getMedianMillis(defaultMillis);
+        Map<String, Long> expected = new TreeMap<>();
+        for (String key : methodKeys) {
+            expected.put(key, history.contains(key) ? history.getAverageMillis(key) : unknownMillis);
+        }
+        List<Map.Entry<String, Long>> longestFirst = new ArrayList<>(expected.entrySet());
+        longestFirst.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+
+        List<Shard> shards = new ArrayList<>();
+        PriorityQueue<Shard> leastLoaded = new PriorityQueue<>(
+                Comparator.comparingLong(Shard::getExpectedMillis).thenComparingInt(Shard::getIndex));
+        for (int index = 0; index < shardCount; index++) {
+            Shard shard = new Shard(index);
+            shards.add(shard);
+            leastLoaded.add(shard);
+        }
+        for (Map.Entry<String, Long> method : longestFirst) {
+            Shard shard = leastLoaded.poll();
+            shard.add(method.getKey(), method.getValue());
+            leastLoaded.add(shard);
+        }
+        return shards;
+    }
+
+    public static class Shard {
+        private final int index;
+        private final List<String> methods = new ArrayList<>();
+        private long expectedMillis;
+
+        Shard(int index) {
+            this.index = index;
+        }
+
+        void add(String methodKey, long millis) {
+            methods.add(methodKey);
+            expectedMillis += millis;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public List<String> getMethods() {
+            return Collections.unmodifiableList(methods);
+        }
+
+        public long getExpectedMillis() {
+            return expectedMillis;
+        }
+    }
+}
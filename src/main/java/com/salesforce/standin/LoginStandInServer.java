@@ -0,0 +1,294 @@
+package com.salesforce.standin;
+
+import com.salesforce.utils.ConfigReader;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Embedded HTTP stand-in for the Salesforce login page, for hermetic runs on isolated agents and as a
+ * controlled target for performance comparisons. It serves the DOM ids {@code LoginPage} relies on, accepts the
+ * configured credentials (redirecting to a home page with {@code userNavLabel}) and answers anything else with
+ * the {@code error} message the real page shows.
+ * <p>
+ * Every request is delayed by standin.latencyMillis plus up to standin.latencyJitterMillis, and answered with
+ * HTTP 503 at standin.errorRate (0.0-1.0). Jitter and errors draw from a Random seeded with standin.seed.
+ */
+public class LoginStandInServer {
+    private static final Logger logger = LogManager.getLogger(LoginStandInServer.class);
+    private static final String SESSION_COOKIE = "sid";
+    private static final String REMEMBER_COOKIE = "rememberUn";
+    private static LoginStandInServer instance;
+
+    static {
+        // Without TCP_NODELAY small responses stall ~40 ms on delayed ACKs, which would swamp injected latency
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final String username;
+    private final String password;
+    private final long latencyMillis;
+    private final long latencyJitterMillis;
+    private final double errorRate;
+    private final Random random;
+    private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+
+    private LoginStandInServer(int port) throws IOException {
+        username = ConfigReader.getUsername();
+        password = ConfigReader.getPassword();
+        latencyMillis = ConfigReader.getIntProperty("standin.latencyMillis", 0);
+        latencyJitterMillis = ConfigReader.getIntProperty("standin.latencyJitterMillis", 0);
+        errorRate = Double.parseDouble(ConfigReader.getProperty("standin.errorRate", "0"));
+        random = new Random(ConfigReader.getIntProperty("standin.seed", 42));
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "login-standin-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(ConfigReader.getProperty("standin.enabled", "false"));
+    }
+
+    /**
+     * Starts the stand-in on standin.port (0 picks a free port) unless it is already running.
+     */
+    public static synchronized LoginStandInServer start() {
+        if (instance == null) {
+            try {
+                instance = new LoginStandInServer(ConfigReader.getIntProperty("standin.port", 0));
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to start login stand-in server: " + e.getMessage(), e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(LoginStandInServer::stop, "login-standin-shutdown"));
+            logger.info("Login stand-in server listening at " + instance.getLoginUrl());
+        }
+        return instance;
+    }
+
+    public static synchronized void stop() {
+        if (instance != null) {
+            instance.server.stop(0);
+            instance.executor.shutdownNow();
+            logger.info("Login stand-in server stopped after " + instance.getRequestCount() + " requests ("
+                    + instance.getInjectedErrorCount() + " injected errors)");
+            instance = null;
+        }
+    }
+
+    public String getLoginUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/";
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public long getInjectedErrorCount() {
+        return injectedErrors.sum();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            requests.increment();
+            if (injectFault()) {
+                injectedErrors.increment();
+                respond(exchange, 503, page("Service Unavailable", "<h1>Service Unavailable</h1>"));
+                return;
+            }
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            if ("POST".equals(method) && "/login".equals(path)) {
+                login(exchange);
+            } else if ("GET".equals(method) && "/home".equals(path)) {
+                home(exchange);
+            } else if ("GET".equals(method) && "/secur/forgotpassword.jsp".equals(path)) {
+                respond(exchange, 200, page("Forgot Your Password | Salesforce",
+                        "<h2 id=\"header\">Forgot Your Password</h2>"
+                                + "<form method=\"post\" action=\"/secur/forgotpassword.jsp\">"
+                                + "<input type=\"email\" id=\"un\" name=\"un\"/>"
+                                + "<input type=\"submit\" id=\"continue\" value=\"Continue\"/></form>"));
+            } else if ("GET".equals(method) && "/".equals(path)) {
+                respond(exchange, 200, loginPage(cookies(exchange).get(REMEMBER_COOKIE), null));
+            } else {
+                respond(exchange, 404, page("Not Found", "<h1>Not Found</h1>"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.error("Login stand-in failed to handle " + exchange.getRequestURI() + ": " + e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Sleeps for the configured latency and decides whether this request gets an injected error.
+     */
+    private boolean injectFault() throws InterruptedException {
+        long jitter;
+        boolean fail;
+        synchronized (random) {
+            jitter = latencyJitterMillis > 0 ? (long) (random.nextDouble() * latencyJitterMillis) : 0;
+            fail = errorRate > 0 && random.nextDouble() < errorRate;
+        }
+        if (latencyMillis + jitter > 0) {
+            Thread.sleep(latencyMillis + jitter);
+        }
+        return fail;
+    }
+
+    private void login(HttpExchange exchange) throws IOException {
+        Map<String, String> form = parseForm(exchange.getRequestBody());
+        String user = form.getOrDefault("username", "");
+        String pass = form.getOrDefault("pw", "");
+        String error = null;
+        if (user.isEmpty()) {
+            error = "Please enter your username.";
+        } else if (pass.isEmpty()) {
+            error = "Please enter your password.";
+        } else if (!user.equals(username) || !pass.equals(password)) {
+            error = "Please check your username and password. If you still can't log in, contact your Salesforce administrator.";
+        }
+        if (error != null) {
+            respond(exchange, 200, loginPage(user, error));
+            return;
+        }
+        String session = UUID.randomUUID().toString();
+        sessions.add(session);
+        exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + session + "; Path=/; HttpOnly");
+        exchange.getResponseHeaders().add("Set-Cookie", form.containsKey(REMEMBER_COOKIE)
+                ? REMEMBER_COOKIE + "=" + encode(user) + "; Path=/"
+                : REMEMBER_COOKIE + "=; Path=/; Max-Age=0");
+        redirect(exchange, "/home");
+    }
+
+    private void home(HttpExchange exchange) throws IOException {
+        String session = cookies(exchange).get(SESSION_COOKIE);
+        if (session == null || !sessions.contains(session)) {
+            redirect(exchange, "/");
+            return;
+        }
+        respond(exchange, 200, page("Home | Salesforce",
+                "<div id=\"userNav\"><span id=\"userNavLabel\">" + escape(username) + "</span></div>"
+                        + "<h1>Home</h1>"));
+    }
+
+    private static String loginPage(String rememberedUser, String error) {
+        String user = rememberedUser == null ? "" : rememberedUser;
+        return page("Login | Salesforce",
+                "<div id=\"content\">"
+                        + "<div id=\"error\" class=\"loginError\"" + (error == null ? " style=\"display:none\">" : ">")
+                        + (error == null ? "" : escape(error)) + "</div>"
+                        + "<form id=\"login_form\" name=\"login\" method=\"post\" action=\"/login\">"
+                        + "<div id=\"usernamegroup\" class=\"inputgroup\"><label for=\"username\">Username</label>"
+                        + "<input type=\"email\" id=\"username\" name=\"username\" class=\"input\" value=\"" + escape(user) + "\"/></div>"
+                        + "<div id=\"passwordgroup\" class=\"inputgroup\"><label for=\"password\">Password</label>"
+                        + "<input type=\"password\" id=\"password\" name=\"pw\" class=\"input\"/></div>"
+                        + "<input type=\"submit\" id=\"Login\" class=\"button\" value=\"Log In\"/>"
+                        + "<div class=\"remember\"><input type=\"checkbox\" id=\"rememberUn\" name=\"rememberUn\""
+                        + (rememberedUser == null ? "" : " checked=\"checked\"") + "/>"
+                        + "<label for=\"rememberUn\">Remember me</label></div>"
+                        + "<a id=\"forgot_password_link\" href=\"/secur/forgotpassword.jsp\">Forgot Your Password?</a>"
+                        + "</form></div>");
+    }
+
+    private static String page(String title, String body) {
+        return "<!DOCTYPE html><html><head><meta charset=\"UTF-8\"/><title>" + title + "</title></head><body>"
+                + body + "</body></html>";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String html) throws IOException {
+        byte[] body = html.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().set("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+    }
+
+    private static Map<String, String> parseForm(InputStream body) throws IOException {
+        Map<String, String> form = new HashMap<>();
+        String encoded = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        for (String pair : encoded.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            form.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return form;
+    }
+
+    private static Map<String, String> cookies(HttpExchange exchange) {
+        Map<String, String> cookies = new HashMap<>();
+        for (String header : exchange.getRequestHeaders().getOrDefault("Cookie", Collections.emptyList())) {
+            for (String cookie : header.split(";")) {
+                int separator = cookie.indexOf('=');
+                if (separator > 0) {
+                    cookies.put(cookie.substring(0, separator).trim(),
+                            URLDecoder.decode(cookie.substring(separator + 1).trim(), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return cookies;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    /**
+     * Runs the stand-in on its own, e.g. as a fixed target for load or performance comparisons.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("Login stand-in server: " + start().getLoginUrl());
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,283 @@
+package com.salesforce.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Records the latency of every WebDriver command and explicit wait. Samples feed run-wide histograms per
+ * command type ("WebElement.click", "Waiter.until", ...) and per page-object method (the nearest
+ * {@code com.salesforce.pages.*Page} frame on the calling stack), and are kept per test on the recording
+ * thread between {@link #beginTest(String)} and {@link #endTest()}. Disabled with latency.enabled=false.
+ */
+public class CommandLatency {
+    private static final Logger logger = LogManager.getLogger(CommandLatency.class);
+    private static final boolean enabled = Boolean.parseBoolean(ConfigReader.getProperty("latency.enabled", "true"));
+    private static final String PAGE_PACKAGE = "com.salesforce.pages.";
+    private static final StackWalker stackWalker = StackWalker.getInstance();
+    private static final Map<String, LatencyHistogram> byCommand = new ConcurrentSkipListMap<>();
+    private static final Map<String, LatencyHistogram> byPageMethod = new ConcurrentSkipListMap<>();
+    private static final ConcurrentLinkedQueue<TestLatency> finishedTests = new ConcurrentLinkedQueue<>();
+    private static final ThreadLocal<TestSamples> currentTest = new ThreadLocal<>();
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void beginTest(String testName) {
+        if (enabled) {
+            currentTest.set(new TestSamples(testName));
+        }
+    }
+
+    /**
+     * Stops recording for the current thread's test and returns its per-command summary, or null if no test was started.
+     */
+    public static TestLatency endTest() {
+        TestSamples samples = currentTest.get();
+        if (samples == null) {
+            return null;
+        }
+        currentTest.remove();
+        TestLatency latency = samples.summarize();
+        finishedTests.add(latency);
+        return latency;
+    }
+
+    public static void record(String command, long nanos) {
+        if (!enabled) {
+            return;
+        }
+        byCommand.computeIfAbsent(command, key -> new LatencyHistogram()).record(nanos);
+        pageMethod().ifPresent(method -> byPageMethod.computeIfAbsent(method, key -> new LatencyHistogram()).record(nanos));
+        TestSamples samples = currentTest.get();
+        if (samples != null) {
+            samples.add(command, nanos);
+        }
+    }
+
+    public static Map<String, Summary> getCommandSummaries() {
+        return summarize(byCommand);
+    }
+
+    public static Map<String, Summary> getPageMethodSummaries() {
+        return summarize(byPageMethod);
+    }
+
+    /**
+     * Writes the run's histograms and per-test summaries as JSON; timings are in milliseconds.
+     */
+    public static void export(Path file) {
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("byCommand", toJson(getCommandSummaries()));
+        document.put("byPageMethod", toJson(getPageMethodSummaries()));
+        List<Object> tests = new ArrayList<>();
+        for (TestLatency test : finishedTests) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("test", test.getTestName());
+            entry.put("total", test.getTotal().toJson());
+            entry.put("byCommand", toJson(test.getByCommand()));
+            tests.add(entry);
+        }
+        document.put("byTest", tests);
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.write(file, new Json().toJson(document).getBytes(StandardCharsets.UTF_8));
+            logger.info("Command latency written to: " + file);
+        } catch (IOException e) {
+            logger.error("Failed to write command latency: " + e.getMessage());
+        }
+    }
+
+    private static Map<String, Summary> summarize(Map<String, LatencyHistogram> histograms) {
+        Map<String, Summary> summaries = new LinkedHashMap<>();
+        histograms.forEach((key, histogram) -> summaries.put(key, Summary.of(histogram)));
+        return summaries;
+    }
+
+    private static Map<String, Object> toJson(Map<String, Summary> summaries) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        summaries.forEach((key, summary) -> json.put(key, summary.toJson()));
+        return json;
+    }
+
+    private static Optional<String> pageMethod() {
+        return stackWalker.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(PAGE_PACKAGE) && frame.getClassName().endsWith("Page"))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(PAGE_PACKAGE.length()) + "." + methodName(frame.getMethodName())));
+    }
+
+    /**
+     * Maps a lambda body such as lambda$awaitLoginOutcome$0 back to the method that declared it.
+     */
+    private static String methodName(String frameMethod) {
+        if (frameMethod.startsWith("lambda$")) {
+            int end = frameMethod.indexOf('$', "lambda$".length());
+            return end > 0 ? frameMethod.substring("lambda$".length(), end) : frameMethod;
+        }
+        return frameMethod;
+    }
+
+    public static class TestLatency {
+        private final String testName;
+        private final Summary total;
+        private final Map<String, Summary> byCommand;
+
+        TestLatency(String testName, Summary total, Map<String, Summary> byCommand) {
+            this.testName = testName;
+            this.total = total;
+            this.byCommand = byCommand;
+        }
+
+        public String getTestName() {
+            return testName;
+        }
+
+        public Summary getTotal() {
+            return total;
+        }
+
+        public Map<String, Summary> getByCommand() {
+            return byCommand;
+        }
+    }
+
+    public static class Summary {
+        private final long count;
+        private final double totalMillis;
+        private final double p50Millis;
+        private final double p95Millis;
+        private final double p99Millis;
+        private final double maxMillis;
+
+        Summary(long count, double totalMillis, double p50Millis, double p95Millis, double p99Millis, double maxMillis) {
+            this.count = count;
+            this.totalMillis = totalMillis;
+            this.p50Millis = p50Millis;
+            this.p95Millis = p95Millis;
+            this.p99Millis = p99Millis;
+            this.maxMillis = maxMillis;
+        }
+
+        static Summary of(LatencyHistogram histogram) {
+            return new Summary(histogram.getCount(), histogram.getTotalMillis(), histogram.getPercentileMillis(50),
+                    histogram.getPercentileMillis(95), histogram.getPercentileMillis(99), histogram.getMaxMillis());
+        }
+
+        /**
+         * Exact percentiles over the given samples, which are sorted in place.
+         */
+        static Summary of(long[] nanos, int size) {
+            if (size == 0) {
+                return new Summary(0, 0, 0, 0, 0, 0);
+            }
+            Arrays.sort(nanos, 0, size);
+            long total = 0;
+            for (int i = 0; i < size; i++) {
+                total += nanos[i];
+            }
+            return new Summary(size, total / 1_000_000.0, percentile(nanos, size, 50), percentile(nanos, size, 95),
+                    percentile(nanos, size, 99), nanos[size - 1] / 1_000_000.0);
+        }
+
+        private static double percentile(long[] sorted, int size, double percentile) {
+            int rank = (int) Math.ceil(size * percentile / 100.0);
+            return sorted[Math.max(rank, 1) - 1] / 1_000_000.0;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getTotalMillis() {
+            return totalMillis;
+        }
+
+        public double getP50Millis() {
+            return p50Millis;
+        }
+
+        public double getP95Millis() {
+            return p95Millis;
+        }
+
+        public double getP99Millis() {
+            return p99Millis;
+        }
+
+        public double getMaxMillis() {
+            return maxMillis;
+        }
+
+        Map<String, Object> toJson() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("count", count);
+            json.put("totalMs", round(totalMillis));
+            json.put("p50Ms", round(p50Millis));
+            json.put("p95Ms", round(p95Millis));
+            json.put("p99Ms", round(p99Millis));
+            json.put("maxMs", round(maxMillis));
+            return json;
+        }
+
+        private static double round(double millis) {
+            return Math.round(millis * 1000) / 1000.0;
+        }
+    }
+
+    /**
+     * Raw samples for one test, confined to the thread running it.
+     */
+    private static class TestSamples {
+        private final String testName;
+        private final Map<String, long[]> samples = new TreeMap<>();
+        private final Map<String, Integer> sizes = new TreeMap<>();
+
+        TestSamples(String testName) {
+            this.testName = testName;
+        }
+
+        void add(String command, long nanos) {
+            int size = sizes.getOrDefault(command, 0);
+            long[] values = samples.get(command);
+            if (values == null || values.length == size) {
+                values = values == null ? new long[16] : Arrays.copyOf(values, size * 2);
+                samples.put(command, values);
+            }
+            values[size] = nanos;
+            sizes.put(command, size + 1);
+        }
+
+        TestLatency summarize() {
+            Map<String, Summary> byCommand = new LinkedHashMap<>();
+            int totalSize = 0;
+            for (int size : sizes.values()) {
+                totalSize += size;
+            }
+            long[] all = new long[totalSize];
+            int offset = 0;
+            for (Map.Entry<String, long[]> entry : samples.entrySet()) {
+                int size = sizes.get(entry.getKey());
+                System.arraycopy(entry.getValue(), 0, all, offset, size);
+                offset += size;
+                byCommand.put(entry.getKey(), Summary.of(entry.getValue(), size));
+            }
+            return new TestLatency(testName, Summary.of(all, totalSize), byCommand);
+        }
+    }
+}
@@ -1,29 +1,68 @@
 package com.salesforce.utils;
 
+import com.salesforce.standin.LoginStandInServer;
+
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.Base64;
 import java.util.Properties;
 
 public class ConfigReader {
     private static Properties properties;
-    private static final String CONFIG_FILE = "src/test/resources/global.properties";
+    private static final String CONFIG_FILE = System.getProperty("config.file", "src/test/resources/global.properties");
 
     static {
         properties = new Properties();
-        try (FileInputStream fis = new FileInputStream(CONFIG_FILE)) {
+        try (InputStream fis = openConfigFile()) {
             properties.load(fis);
         } catch (IOException e) {
             throw new RuntimeException("Failed to load config file: " + e.getMessage());
         }
     }
 
+    private static InputStream openConfigFile() throws IOException {
+        if (Files.exists(Paths.get(CONFIG_FILE))) {
+            return new FileInputStream(CONFIG_FILE);
+        }
+        InputStream resource = ConfigReader.class.getClassLoader().getResourceAsStream("global.properties");
+        if (resource == null) {
+            throw new IOException(CONFIG_FILE + " not found and no global.properties on the classpath");
+        }
+        return resource;
+    }
+
+    /**
+     * The raw bytes of the loaded config file, for fingerprinting the configuration.
+     */
+    public static byte[] readConfigFile() {
+        try (InputStream in = openConfigFile()) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read config file: " + e.getMessage());
+        }
+    }
+
     public static String getBrowser() {
-        return properties.getProperty("browser", "chrome");
+        return getProperty("browser", "chrome");
     }
 
+    /**
+     * The login URL: the embedded stand-in's when standin.enabled=true (starting it on first use), url otherwise.
+     */
     public static String getUrl() {
-        return properties.getProperty("url");
+        return LoginStandInServer.isEnabled() ? LoginStandInServer.start().getLoginUrl() : getProperty("url");
+    }
+
+    public static int getPoolSize() {
+        int poolSize = getIntProperty("pool.size", 0);
+        return poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+    }
+
+    public static int getPoolBorrowTimeoutSeconds() {
+        return getIntProperty("pool.borrowTimeoutSeconds", 120);
     }
 
     public static String getUsername() {
@@ -34,6 +73,18 @@ public class ConfigReader {
         return decrypt(properties.getProperty("encryptedPassword"));
     }
 
+    /**
+     * True when the configured credentials can log in: real (non-placeholder) credentials, or the login stand-in.
+     */
+    public static boolean hasValidCredentials() {
+        if (LoginStandInServer.isEnabled()) {
+            return true;
+        }
+        String username = getUsername();
+        String password = getPassword();
+        return !username.isEmpty() && !password.isEmpty() && !username.equals("encrypted_user");
+    }
+
     private static String decrypt(String encryptedValue) {
         if (encryptedValue == null || encryptedValue.isEmpty()) {
             return "";
@@ -42,6 +93,23 @@ public class ConfigReader {
     }
 
     public static String getProperty(String key) {
-        return properties.getProperty(key);
+        return System.getProperty(key, properties.getProperty(key));
+    }
+
+    public static String getProperty(String key, String defaultValue) {
+        String value = getProperty(key);
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+
+    public static int getIntProperty(String key, int defaultValue) {
+        String value = getProperty(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid integer value for " + key + ": " + value);
+        }
     }
 }
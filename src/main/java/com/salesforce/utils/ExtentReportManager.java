@@ -2,55 +2,145 @@ package com.salesforce.utils;
 
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.model.Media;
+import com.aventstack.extentreports.model.SystemEnvInfo;
+import com.aventstack.extentreports.model.Test;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.aventstack.extentreports.reporter.JsonFormatter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
+import com.salesforce.results.ResultsStore;
 
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+/**
+ * Owns the run's Extent report. Threads create and log to their own tests concurrently under a shared
+ * read lock; flushing takes the write lock so the reporter never sees a half-updated model.
+ * The report is flushed every report.flushIntervalSeconds (and, if set, every report.flushEveryTests finished
+ * tests) and on JVM shutdown, so a usable ExtentReport.html exists while the suite is still running. Each flush
+ * re-renders the whole report, so the timer and shutdown flushes are skipped when no test has finished since
+ * the last one.
+ * A failed-only rerun (rerun.failed=true) reopens the earlier run's folder and report instead: its tests are
+ * loaded from extent.json and each rerun test replaces the earlier entry of the same name.
+ */
 public class ExtentReportManager {
-    private static ExtentReports extent;
-    private static ThreadLocal<ExtentTest> test = new ThreadLocal<>();
-    private static String reportFolderPath;
-    private static String reportFilePath;
-    private static String screenshotFolderPath;
+    private static volatile ExtentReports extent;
+    private static final ThreadLocal<ExtentTest> test = new ThreadLocal<>();
+    private static final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private static final AtomicInteger testsSinceFlush = new AtomicInteger();
+    private static final Map<String, String> runnerOutputs = new ConcurrentHashMap<>();
+    private static final Set<String> replaceableTests = ConcurrentHashMap.newKeySet();
+    private static volatile String reportFolderPath;
+    private static volatile String reportFilePath;
+    private static volatile String screenshotFolderPath;
     private static final String REPORT_BASE_DIR = "reports";
-    
+    /** Machine-readable copy of the report, read by {@code ShardMerger} and by failed-only reruns. */
+    public static final String JSON_REPORT_FILE = "extent.json";
+    private static final int shardCount = ConfigReader.getIntProperty("shard.count", 1);
+
     public static ExtentReports getInstance() {
-        if (extent == null) {
-            initializeReportPaths();
-            createReportDirectories();
-            
-            ExtentSparkReporter sparkReporter = new ExtentSparkReporter(reportFilePath);
-            sparkReporter.config().setTheme(Theme.DARK);
-            sparkReporter.config().setDocumentTitle("Salesforce Automation Report");
-            sparkReporter.config().setReportName("Login Test Execution Report");
-            sparkReporter.config().setTimeStampFormat("EEEE, MMMM dd, yyyy, hh:mm a '('zzz')'");
-            sparkReporter.config().setJs("document.getElementsByClassName('logo')[0].style.display='none';");
-
-            extent = new ExtentReports();
-            extent.attachReporter(sparkReporter);
-            extent.setSystemInfo("OS", System.getProperty("os.name"));
-            extent.setSystemInfo("Java Version", System.getProperty("java.version"));
-            extent.setSystemInfo("Browser", ConfigReader.getBrowser());
-            extent.setSystemInfo("Environment", "QA");
-            extent.setSystemInfo("Report Path", reportFilePath);
-        }
-        return extent;
-    }
-    
-    private static void initializeReportPaths() {
-        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
-        reportFolderPath = REPORT_BASE_DIR + "/run_" + timestamp;
+        ExtentReports instance = extent;
+        if (instance == null) {
+            synchronized (ExtentReportManager.class) {
+                instance = extent;
+                if (instance == null) {
+                    instance = createInstance();
+                    extent = instance;
+                    scheduleFlushes();
+                }
+            }
+        }
+        return instance;
+    }
+
+    private static ExtentReports createInstance() {
+        Path rerunFolder = ResultsStore.findRerunFolder();
+        initializeReportPaths(rerunFolder);
+        createReportDirectories();
+
+        ExtentReports reports = new ExtentReports();
+        if (rerunFolder != null) {
+            loadEarlierTests(reports);
+        }
+        reports.attachReporter(createSparkReporter(reportFilePath));
+        reports.attachReporter(new JsonFormatter(reportFolderPath + "/" + JSON_REPORT_FILE));
+        reports.setSystemInfo("OS", System.getProperty("os.name"));
+        reports.setSystemInfo("Java Version", System.getProperty("java.version"));
+        reports.setSystemInfo("Browser", ConfigReader.getBrowser());
+        reports.setSystemInfo("Environment", "QA");
+        reports.setSystemInfo("Report Path", reportFilePath);
+        return reports;
+    }
+
+    /**
+     * The Spark reporter with the project's look, shared with the shard merger.
+     */
+    public static ExtentSparkReporter createSparkReporter(String reportFilePath) {
+        ExtentSparkReporter sparkReporter = new ExtentSparkReporter(reportFilePath);
+        sparkReporter.config().setTheme(Theme.DARK);
+        sparkReporter.config().setDocumentTitle("Salesforce Automation Report");
+        sparkReporter.config().setReportName("Login Test Execution Report");
+        sparkReporter.config().setTimeStampFormat("EEEE, MMMM dd, yyyy, hh:mm a '('zzz')'");
+        sparkReporter.config().setJs("document.getElementsByClassName('logo')[0].style.display='none';");
+        return sparkReporter;
+    }
+
+    private static void scheduleFlushes() {
+        int intervalSeconds = ConfigReader.getIntProperty("report.flushIntervalSeconds", 30);
+        if (intervalSeconds > 0) {
+            ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "extent-report-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(ExtentReportManager::flushIfTestsFinished, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(ExtentReportManager::flushIfTestsFinished, "extent-report-shutdown-flush"));
+    }
+
+    private static void loadEarlierTests(ExtentReports reports) {
+        Path archive = Paths.get(reportFolderPath, JSON_REPORT_FILE);
+        if (!Files.isRegularFile(archive)) {
+            System.err.println("No " + JSON_REPORT_FILE + " in " + reportFolderPath + ", rerun results start a new report there");
+            return;
+        }
+        try {
+            reports.createDomainFromJsonArchive(archive.toString());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load earlier report " + archive + ": " + e.getMessage(), e);
+        }
+        for (Test earlier : reports.getReport().getTestList()) {
+            replaceableTests.add(earlier.getName());
+        }
+    }
+
+    private static void initializeReportPaths(Path rerunFolder) {
+        if (rerunFolder != null) {
+            reportFolderPath = rerunFolder.toString().replace('\\', '/');
+        } else {
+            String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+            reportFolderPath = REPORT_BASE_DIR + "/run_" + timestamp
+                    + (shardCount > 1 ? "_shard" + ConfigReader.getIntProperty("shard.index", 0) : "");
+        }
         reportFilePath = reportFolderPath + "/ExtentReport.html";
         screenshotFolderPath = reportFolderPath + "/screenshots";
     }
-    
+
     private static void createReportDirectories() {
         try {
             Files.createDirectories(Paths.get(reportFolderPath));
@@ -60,32 +150,143 @@ public class ExtentReportManager {
             System.err.println("Failed to create report directories: " + e.getMessage());
         }
     }
-    
+
     public static String getReportFolderPath() {
         return reportFolderPath;
     }
-    
+
     public static String getReportFilePath() {
         return reportFilePath;
     }
-    
+
     public static String getScreenshotFolderPath() {
         return screenshotFolderPath;
     }
 
+    /**
+     * Starts the current thread's test. In a rerun, the earlier run's entry of the same name is removed first.
+     */
     public static void createTest(String testName) {
-        ExtentTest extentTest = getInstance().createTest(testName);
-        test.set(extentTest);
+        ExtentReports reports = getInstance();
+        if (replaceableTests.remove(testName)) {
+            lock.writeLock().lock();
+            try {
+                reports.removeTest(testName);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        lock.readLock().lock();
+        try {
+            test.set(reports.createTest(testName));
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     public static ExtentTest getTest() {
         return test.get();
     }
 
+    public static void log(Status status, String details) {
+        lock.readLock().lock();
+        try {
+            test.get().log(status, details);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static void log(Status status, String details, Media media) {
+        lock.readLock().lock();
+        try {
+            test.get().log(status, details, media);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static void assignCategory(String category) {
+        lock.readLock().lock();
+        try {
+            test.get().assignCategory(category);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Releases the current thread's test and flushes if report.flushEveryTests (0 = off) tests have finished.
+     */
+    public static void endTest() {
+        test.remove();
+        int finished = testsSinceFlush.incrementAndGet();
+        int flushEveryTests = ConfigReader.getIntProperty("report.flushEveryTests", 0);
+        if (flushEveryTests > 0 && finished >= flushEveryTests) {
+            flushQuietly();
+        }
+    }
+
+    public static void setRunInfo(String name, String value) {
+        ExtentReports reports = getInstance();
+        lock.writeLock().lock();
+        try {
+            for (SystemEnvInfo info : reports.getReport().getSystemEnvInfo()) {
+                if (info.getName().equals(name)) {
+                    info.setValue(value);
+                    return;
+                }
+            }
+            reports.setSystemInfo(name, value);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a block to the report's runner log, replacing the block previously set under the same key.
+     */
+    public static void setRunnerOutput(String key, String output) {
+        ExtentReports reports = getInstance();
+        lock.writeLock().lock();
+        try {
+            String previous = runnerOutputs.put(key, output);
+            List<String> logs = reports.getReport().getLogs();
+            if (previous != null) {
+                logs.remove(previous);
+            }
+            reports.addTestRunnerOutput(output);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
     public static void flush() {
         if (extent != null) {
-            extent.flush();
+            flushQuietly();
             System.out.println("Report generated at: " + reportFilePath);
         }
     }
+
+    private static void flushIfTestsFinished() {
+        if (testsSinceFlush.get() > 0) {
+            flushQuietly();
+        }
+    }
+
+    private static void flushQuietly() {
+        ExtentReports reports = extent;
+        if (reports == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            testsSinceFlush.set(0);
+            reports.flush();
+        } catch (RuntimeException e) {
+            System.err.println("Failed to flush report: " + e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
 }
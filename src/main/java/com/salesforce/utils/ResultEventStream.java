@@ -0,0 +1,314 @@
+package com.salesforce.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams test lifecycle events as they happen, one JSON object per line, to the sinks in events.sink
+ * (comma-separated): {@code file} for events.ndjson in the run folder, {@code file:<path>} for another file
+ * (appended to), {@code tcp://host:port} for a socket and {@code http(s)://...} for NDJSON POSTs. Events are
+ * queued (events.queueCapacity) and written in batches by a background thread; emitting never blocks. Events
+ * that do not fit in a full queue, and batches a sink fails to take, are dropped and counted.
+ */
+public class ResultEventStream {
+    private static final Logger logger = LogManager.getLogger(ResultEventStream.class);
+    private static final int BATCH_SIZE = 256;
+    private static final int socketTimeoutMillis = ConfigReader.getIntProperty("events.socketTimeoutMillis", 2000);
+    private static final List<Sink> sinks = createSinks(ConfigReader.getProperty("events.sink", ""));
+    private static final BlockingQueue<Map<String, Object>> queue =
+            new ArrayBlockingQueue<>(ConfigReader.getIntProperty("events.queueCapacity", 10000));
+    private static final AtomicLong dropped = new AtomicLong();
+    private static final AtomicBoolean queueFullLogged = new AtomicBoolean();
+    private static final Object drainLock = new Object();
+    private static int pending;
+
+    static {
+        if (!sinks.isEmpty()) {
+            Thread writer = new Thread(ResultEventStream::writeLoop, "result-event-writer");
+            writer.setDaemon(true);
+            writer.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                drain(5000);
+                sinks.forEach(Sink::close);
+            }, "result-event-drain"));
+        }
+    }
+
+    public static boolean isEnabled() {
+        return !sinks.isEmpty();
+    }
+
+    /**
+     * Queues an event of the given type with the run, shard, thread and time added; a no-op without sinks.
+     */
+    public static void emit(String type, Map<String, Object> fields) {
+        if (sinks.isEmpty()) {
+            return;
+        }
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("event", type);
+        event.put("time", Instant.now().toString());
+        event.put("run", ExtentReportManager.getReportFolderPath());
+        int shardCount = ConfigReader.getIntProperty("shard.count", 1);
+        if (shardCount > 1) {
+            event.put("shard", ConfigReader.getIntProperty("shard.index", 0));
+        }
+        event.put("thread", Thread.currentThread().getName());
+        event.putAll(fields);
+        synchronized (drainLock) {
+            if (!queue.offer(event)) {
+                dropped.incrementAndGet();
+                if (queueFullLogged.compareAndSet(false, true)) {
+                    logger.warn("Result event queue full, dropping events");
+                }
+                return;
+            }
+            pending++;
+        }
+    }
+
+    public static long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Waits until every queued event has been written, at most timeoutMillis.
+     */
+    public static boolean drain(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (drainLock) {
+            while (pending > 0) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    logger.warn("{} result event(s) still pending after {} ms", pending, timeoutMillis);
+                    return false;
+                }
+                try {
+                    drainLock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static void writeLoop() {
+        Json json = new Json();
+        List<Map<String, Object>> batch = new ArrayList<>(BATCH_SIZE);
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, BATCH_SIZE - 1);
+            StringBuilder lines = new StringBuilder();
+            for (Map<String, Object> event : batch) {
+                try (JsonOutput out = json.newOutput(lines)) {
+                    out.setPrettyPrint(false).write(event);
+                }
+                lines.append('\n');
+            }
+            for (Sink sink : sinks) {
+                try {
+                    sink.write(lines.toString());
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("Failed to send {} result event(s) to {}: {}", batch.size(), sink, e.getMessage());
+                    dropped.addAndGet(batch.size());
+                    sink.close();
+                }
+            }
+            synchronized (drainLock) {
+                pending -= batch.size();
+                if (pending == 0) {
+                    drainLock.notifyAll();
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private static List<Sink> createSinks(String config) {
+        List<Sink> created = new ArrayList<>();
+        for (String spec : config.split(",")) {
+            spec = spec.trim();
+            if (spec.isEmpty()) {
+                continue;
+            }
+            if (spec.equals("file")) {
+                created.add(new FileSink(null));
+            } else if (spec.startsWith("file:")) {
+                created.add(new FileSink(Paths.get(spec.substring("file:".length()))));
+            } else if (spec.startsWith("tcp://")) {
+                created.add(new SocketSink(URI.create(spec)));
+            } else if (spec.startsWith("http://") || spec.startsWith("https://")) {
+                created.add(new HttpSink(URI.create(spec)));
+            } else {
+                throw new IllegalArgumentException("Unknown events.sink: " + spec);
+            }
+        }
+        return created;
+    }
+
+    private interface Sink {
+        void write(String lines) throws IOException;
+
+        void close();
+    }
+
+    /**
+     * Appends to the file and flushes every batch, so the file can be tailed while the run is going.
+     */
+    private static class FileSink implements Sink {
+        private final Path configuredFile;
+        private Writer writer;
+
+        FileSink(Path configuredFile) {
+            this.configuredFile = configuredFile;
+        }
+
+        @Override
+        public void write(String lines) throws IOException {
+            if (writer == null) {
+                Path file = configuredFile != null ? configuredFile
+                        : Paths.get(ExtentReportManager.getReportFolderPath(), "events.ndjson");
+                if (file.toAbsolutePath().getParent() != null) {
+                    Files.createDirectories(file.toAbsolutePath().getParent());
+                }
+                writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            writer.write(lines);
+            writer.flush();
+        }
+
+        @Override
+        public void close() {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException ignored) {
+                    // reopened on the next batch
+                }
+                writer = null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return configuredFile != null ? configuredFile.toString() : "events.ndjson";
+        }
+    }
+
+    /**
+     * Keeps one connection open; after a failure the next batch reconnects. Connecting gives up after
+     * events.socketTimeoutMillis (also the socket's SO_TIMEOUT), so an unreachable listener costs one batch.
+     */
+    private static class SocketSink implements Sink {
+        private final URI uri;
+        private Socket socket;
+        private OutputStream out;
+
+        SocketSink(URI uri) {
+            this.uri = uri;
+        }
+
+        @Override
+        public void write(String lines) throws IOException {
+            if (socket == null) {
+                socket = new Socket();
+                socket.setSoTimeout(socketTimeoutMillis);
+                socket.connect(new InetSocketAddress(uri.getHost(), uri.getPort()), socketTimeoutMillis);
+                out = socket.getOutputStream();
+            }
+            out.write(lines.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+
+        @Override
+        public void close() {
+            if (socket != null) {
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                    // reconnected on the next batch
+                }
+                socket = null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return uri.toString();
+        }
+    }
+
+    /**
+     * POSTs each batch as an application/x-ndjson body.
+     */
+    private static class HttpSink implements Sink {
+        private final URI uri;
+        private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+
+        HttpSink(URI uri) {
+            this.uri = uri;
+        }
+
+        @Override
+        public void write(String lines) throws IOException {
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .timeout(Duration.ofSeconds(5))
+                    .header("Content-Type", "application/x-ndjson")
+                    .POST(HttpRequest.BodyPublishers.ofString(lines, StandardCharsets.UTF_8))
+                    .build();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 300) {
+                    throw new IOException("HTTP " + response.statusCode());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted", e);
+            }
+        }
+
+        @Override
+        public void close() {
+            // stateless
+        }
+
+        @Override
+        public String toString() {
+            return uri.toString();
+        }
+    }
+}
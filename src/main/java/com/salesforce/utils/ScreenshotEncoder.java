@@ -0,0 +1,91 @@
+package com.salesforce.utils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Optionally downscales (screenshot.scale) and re-encodes (screenshot.format, screenshot.jpegQuality)
+ * the PNG bytes returned by the browser. With the defaults the bytes are passed through untouched.
+ */
+public class ScreenshotEncoder {
+    private static final double scale = Double.parseDouble(ConfigReader.getProperty("screenshot.scale", "1.0"));
+    private static final String format = ConfigReader.getProperty("screenshot.format", "png").toLowerCase();
+    private static final float jpegQuality = readJpegQuality();
+
+    public static String getFileExtension() {
+        return "jpeg".equals(format) ? "jpg" : format;
+    }
+
+    public static byte[] encode(byte[] png) throws IOException {
+        if (scale >= 1.0 && "png".equals(format)) {
+            return png;
+        }
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(png));
+        if (source == null) {
+            throw new IOException("Screenshot bytes are not a readable image");
+        }
+        int width = Math.max(1, (int) Math.round(source.getWidth() * Math.min(scale, 1.0)));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * Math.min(scale, 1.0)));
+        boolean jpeg = "jpg".equals(getFileExtension());
+        BufferedImage target = new BufferedImage(width, height, jpeg ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return jpeg ? writeJpeg(target) : writeImage(target, getFileExtension());
+    }
+
+    private static byte[] writeImage(BufferedImage image, String imageFormat) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (!ImageIO.write(image, imageFormat, out)) {
+            throw new IOException("No image writer for screenshot.format=" + imageFormat);
+        }
+        return out.toByteArray();
+    }
+
+    private static float readJpegQuality() {
+        String value = ConfigReader.getProperty("screenshot.jpegQuality", "0.8");
+        float quality;
+        try {
+            quality = Float.parseFloat(value.trim());
+        } catch (NumberFormatException e) {
+            quality = Float.NaN;
+        }
+        if (!(quality >= 0f && quality <= 1f)) {
+            throw new IllegalArgumentException("Invalid screenshot.jpegQuality: " + value + " (expected 0.0 to 1.0)");
+        }
+        return quality;
+    }
+
+    private static byte[] writeJpeg(BufferedImage image) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpg");
+        if (!writers.hasNext()) {
+            throw new IOException("No image writer for screenshot.format=jpg");
+        }
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(imageOut);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
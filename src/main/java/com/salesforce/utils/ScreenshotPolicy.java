@@ -0,0 +1,21 @@
+package com.salesforce.utils;
+
+/**
+ * When the listener takes screenshots (screenshot.policy).
+ */
+public enum ScreenshotPolicy {
+    NEVER,
+    ON_FAILURE,
+    ALWAYS,
+    FIRST_PER_PAGE;
+
+    public static ScreenshotPolicy fromConfig() {
+        String value = ConfigReader.getProperty("screenshot.policy", "always");
+        try {
+            return valueOf(value.toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported screenshot.policy: " + value
+                    + " (expected never, on-failure, always or first-per-page)");
+        }
+    }
+}
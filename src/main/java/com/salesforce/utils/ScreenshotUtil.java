@@ -1,35 +1,76 @@
 package com.salesforce.utils;
 
-import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 
-import java.io.File;
-import java.io.IOException;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ScreenshotUtil {
     private static final Logger logger = LogManager.getLogger(ScreenshotUtil.class);
+    private static final ScreenshotPolicy policy = ScreenshotPolicy.fromConfig();
+    private static final Map<String, String> pathsByHash = new ConcurrentHashMap<>();
+    private static final Set<String> capturedPages = ConcurrentHashMap.newKeySet();
 
+    /**
+     * Captures a screenshot for a test outcome if screenshot.policy asks for one.
+     * Returns null when no screenshot was taken.
+     */
+    public static String captureScreenshot(WebDriver driver, String screenshotName, boolean failure) {
+        switch (policy) {
+            case NEVER:
+                return null;
+            case ON_FAILURE:
+                return failure ? captureScreenshot(driver, screenshotName) : null;
+            case FIRST_PER_PAGE:
+                return failure || capturedPages.add(pageKey(driver)) ? captureScreenshot(driver, screenshotName) : null;
+            default:
+                return captureScreenshot(driver, screenshotName);
+        }
+    }
+
+    /**
+     * Captures the screenshot bytes on the calling thread and queues them for writing.
+     * Byte-identical captures share one file; a capture whose write fails is forgotten, so the next
+     * identical one writes its own. The returned report-relative path is valid once
+     * {@link #awaitPendingWrites(long)} returns.
+     */
     public static String captureScreenshot(WebDriver driver, String screenshotName) {
         String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss_SSS").format(new Date());
-        String fileName = screenshotName + "_" + timestamp + ".png";
+        String fileName = screenshotName + "_" + timestamp + "." + ScreenshotEncoder.getFileExtension();
         String screenshotFolder = ExtentReportManager.getScreenshotFolderPath();
-        String destinationPath = screenshotFolder + "/" + fileName;
-
-        File sourceFile = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
-        File destinationFile = new File(destinationPath);
+        String relativePath = "screenshots/" + fileName;
 
+        String hash = null;
         try {
-            FileUtils.copyFile(sourceFile, destinationFile);
-            logger.info("Screenshot captured: " + destinationPath);
-            return "screenshots/" + fileName;
-        } catch (IOException e) {
-            logger.error("Failed to capture screenshot: " + e.getMessage());
+            byte[] bytes = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            hash = sha256(bytes);
+            String existing = pathsByHash.putIfAbsent(hash, relativePath);
+            if (existing != null) {
+                logger.info("Screenshot identical to {}, reusing it for {}", existing, screenshotName);
+                return existing;
+            }
+            String writtenHash = hash;
+            ScreenshotWriter.submit(Paths.get(screenshotFolder, fileName), bytes,
+                    () -> pathsByHash.remove(writtenHash, relativePath));
+            return relativePath;
+        } catch (WebDriverException e) {
+            logger.error("Failed to capture screenshot: {}", e.getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pathsByHash.remove(hash, relativePath);
+            logger.error("Interrupted while queueing screenshot: {}", fileName);
             return null;
         }
     }
@@ -38,8 +79,41 @@ public class ScreenshotUtil {
         try {
             return ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64);
         } catch (Exception e) {
-            logger.error("Failed to capture base64 screenshot: " + e.getMessage());
+            logger.error("Failed to capture base64 screenshot: {}", e.getMessage());
+            return "";
+        }
+    }
+
+    public static boolean awaitPendingWrites(long timeoutMillis) {
+        return ScreenshotWriter.drain(timeoutMillis);
+    }
+
+    private static String pageKey(WebDriver driver) {
+        try {
+            String url = driver.getCurrentUrl();
+            int end = url.length();
+            for (char separator : new char[] {'?', '#'}) {
+                int index = url.indexOf(separator);
+                if (index >= 0 && index < end) {
+                    end = index;
+                }
+            }
+            return url.substring(0, end);
+        } catch (WebDriverException e) {
             return "";
         }
     }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
 }
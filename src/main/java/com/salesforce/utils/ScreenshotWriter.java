@@ -0,0 +1,110 @@
+package com.salesforce.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * Encodes and writes screenshot bytes to disk on a background thread.
+ * The queue is bounded (screenshot.queueCapacity); submitters block when it is full.
+ */
+public class ScreenshotWriter {
+    private static final Logger logger = LogManager.getLogger(ScreenshotWriter.class);
+    private static final BlockingQueue<WriteRequest> queue =
+            new ArrayBlockingQueue<>(ConfigReader.getIntProperty("screenshot.queueCapacity", 16));
+    private static final Object drainLock = new Object();
+    private static int pending;
+
+    static {
+        // loads the encoder here, so invalid screenshot settings fail the caller instead of the writer thread
+        ScreenshotEncoder.getFileExtension();
+        Thread writer = new Thread(ScreenshotWriter::writeLoop, "screenshot-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> drain(5000), "screenshot-writer-drain"));
+    }
+
+    /**
+     * Queues the bytes for writing to destination; onFailure runs on the writer thread if the write fails.
+     */
+    public static void submit(Path destination, byte[] bytes, Runnable onFailure) throws InterruptedException {
+        synchronized (drainLock) {
+            pending++;
+        }
+        try {
+            queue.put(new WriteRequest(destination, bytes, onFailure));
+        } catch (InterruptedException e) {
+            completeOne();
+            throw e;
+        }
+    }
+
+    public static boolean drain(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (drainLock) {
+            while (pending > 0) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    logger.warn("{} screenshot(s) still pending after {} ms", box(pending), box(timeoutMillis));
+                    return false;
+                }
+                try {
+                    drainLock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static void writeLoop() {
+        while (true) {
+            WriteRequest request;
+            try {
+                request = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                Files.write(request.destination, ScreenshotEncoder.encode(request.bytes));
+                logger.info("Screenshot captured: {}", request.destination);
+            } catch (IOException | RuntimeException e) {
+                logger.error("Failed to write screenshot {}: {}", request.destination, e.getMessage());
+                request.onFailure.run();
+            } finally {
+                completeOne();
+            }
+        }
+    }
+
+    private static void completeOne() {
+        synchronized (drainLock) {
+            pending--;
+            if (pending == 0) {
+                drainLock.notifyAll();
+            }
+        }
+    }
+
+    private static class WriteRequest {
+        private final Path destination;
+        private final byte[] bytes;
+        private final Runnable onFailure;
+
+        private WriteRequest(Path destination, byte[] bytes, Runnable onFailure) {
+            this.destination = destination;
+            this.bytes = bytes;
+            this.onFailure = onFailure;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.salesforce.utils;
+
+import org.apache.logging.log4j.ThreadContext;
+
+import java.nio.file.Paths;
+
+/**
+ * Names the running test in the logging ThreadContext: {@code test} is shown in every log line, and
+ * {@code testLogFile} routes the test's lines into its own file under the report folder's logs/ directory
+ * (see the PerTest appender in log4j2.xml), which the report links to.
+ */
+public class TestLogContext {
+    public static final String TEST_KEY = "test";
+    public static final String LOG_FILE_KEY = "testLogFile";
+    private static final String LOG_FOLDER = "logs";
+
+    public static void begin(String testName) {
+        ThreadContext.put(TEST_KEY, testName);
+        ThreadContext.put(LOG_FILE_KEY, Paths.get(ExtentReportManager.getReportFolderPath(), getRelativeLogPath(testName)).toString());
+    }
+
+    public static void end() {
+        ThreadContext.remove(TEST_KEY);
+        ThreadContext.remove(LOG_FILE_KEY);
+    }
+
+    /**
+     * Path of the current test's log file relative to the report, or null outside a test.
+     */
+    public static String getRelativeLogPath() {
+        String testName = ThreadContext.get(TEST_KEY);
+        return testName == null ? null : getRelativeLogPath(testName);
+    }
+
+    /**
+     * Replaces everything but letters, digits, dots, dashes and underscores so a test name can be a file name.
+     */
+    public static String toFileName(String name) {
+        return name.replaceAll("[^A-Za-z0-9_.-]+", "_");
+    }
+
+    private static String getRelativeLogPath(String testName) {
+        return LOG_FOLDER + "/" + toFileName(testName) + ".log";
+    }
+}
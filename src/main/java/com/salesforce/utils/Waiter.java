@@ -0,0 +1,128 @@
+package com.salesforce.utils;
+
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Explicit waits with per-call timeouts and adaptive polling. Drivers using a Waiter must keep the
+ * implicit wait at zero so every poll returns immediately and timeouts are never stacked.
+ * Polling starts at wait.pollMinMillis and doubles up to wait.pollMaxMillis, so conditions that are
+ * already true return after one round trip while long waits do not hammer the browser.
+ * Each wait's duration is recorded in {@link CommandLatency}.
+ */
+public class Waiter {
+    private static final long pollMinMillis = ConfigReader.getIntProperty("wait.pollMinMillis", 25);
+    private static final long pollMaxMillis = ConfigReader.getIntProperty("wait.pollMaxMillis", 500);
+    private final WebDriver driver;
+    private final Duration defaultTimeout;
+
+    public Waiter(WebDriver driver, Duration defaultTimeout) {
+        this.driver = driver;
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    public Duration getDefaultTimeout() {
+        return defaultTimeout;
+    }
+
+    public <T> T until(Function<? super WebDriver, T> condition) {
+        return until(condition, defaultTimeout);
+    }
+
+    public <T> T until(Function<? super WebDriver, T> condition, Duration timeout) {
+        long startNanos = System.nanoTime();
+        try {
+            return pollUntil(condition, timeout, startNanos + timeout.toNanos());
+        } finally {
+            CommandLatency.record("Waiter.until", System.nanoTime() - startNanos);
+        }
+    }
+
+    private <T> T pollUntil(Function<? super WebDriver, T> condition, Duration timeout, long deadline) {
+        long pollMillis = pollMinMillis;
+        RuntimeException lastError = null;
+        while (true) {
+            try {
+                T value = condition.apply(driver);
+                if (isMet(value)) {
+                    return value;
+                }
+            } catch (NotFoundException | StaleElementReferenceException e) {
+                lastError = e;
+            }
+            pollMillis = pause(deadline, pollMillis);
+            if (pollMillis < 0) {
+                throw new TimeoutException("Condition not met within " + timeout.toMillis() + " ms: " + condition, lastError);
+            }
+        }
+    }
+
+    public boolean isSatisfied(Function<? super WebDriver, ?> condition, Duration timeout) {
+        try {
+            until(condition, timeout);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Waits until any of the outcomes is met and returns its key, checking them in map order on each poll.
+     * Returns null if none is met within the timeout.
+     */
+    public <K> K untilAny(Map<K, ? extends Function<? super WebDriver, ?>> outcomes, Duration timeout) {
+        long startNanos = System.nanoTime();
+        try {
+            return pollUntilAny(outcomes, startNanos + timeout.toNanos());
+        } finally {
+            CommandLatency.record("Waiter.untilAny", System.nanoTime() - startNanos);
+        }
+    }
+
+    private <K> K pollUntilAny(Map<K, ? extends Function<? super WebDriver, ?>> outcomes, long deadline) {
+        long pollMillis = pollMinMillis;
+        while (true) {
+            for (Map.Entry<K, ? extends Function<? super WebDriver, ?>> outcome : outcomes.entrySet()) {
+                try {
+                    if (isMet(outcome.getValue().apply(driver))) {
+                        return outcome.getKey();
+                    }
+                } catch (NotFoundException | StaleElementReferenceException e) {
+                    // Not there yet; try the next outcome
+                }
+            }
+            pollMillis = pause(deadline, pollMillis);
+            if (pollMillis < 0) {
+                return null;
+            }
+        }
+    }
+
+    private static boolean isMet(Object value) {
+        return value != null && !Boolean.FALSE.equals(value);
+    }
+
+    /**
+     * Sleeps for the current interval (capped at the deadline) and returns the next one, or -1 once the deadline has passed.
+     */
+    private static long pause(long deadline, long pollMillis) {
+        long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+        if (remainingMillis <= 0) {
+            return -1;
+        }
+        try {
+            Thread.sleep(Math.min(pollMillis, remainingMillis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WebDriverException("Interrupted while waiting", e);
+        }
+        return Math.min(pollMillis * 2, pollMaxMillis);
+    }
+}
@@ -0,0 +1,24 @@
+package com.salesforce.tests;
+
+import com.salesforce.auth.Authenticated;
+import com.salesforce.base.BaseTest;
+import com.salesforce.pages.LoginPage;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Authenticated
+public class HomePageTest extends BaseTest {
+
+    @Test(priority = 1)
+    public void testHomePageDisplayedWithoutLogin() {
+        LoginPage loginPage = new LoginPage(getDriver(), getWait());
+        Assert.assertTrue(loginPage.isHomePageDisplayed(), "Home page should be displayed from the cached session");
+    }
+
+    @Test(priority = 2)
+    public void testSessionSurvivesReload() {
+        getDriver().navigate().refresh();
+        LoginPage loginPage = new LoginPage(getDriver(), getWait());
+        Assert.assertTrue(loginPage.isHomePageDisplayed(), "Home page should still be displayed after a reload");
+    }
+}
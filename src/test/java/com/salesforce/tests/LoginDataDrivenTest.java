@@ -0,0 +1,38 @@
+package com.salesforce.tests;
+
+import com.salesforce.base.BaseTest;
+import com.salesforce.data.DataRow;
+import com.salesforce.data.DataRows;
+import com.salesforce.pages.LoginPage;
+import com.salesforce.utils.ConfigReader;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.Map;
+
+public class LoginDataDrivenTest extends BaseTest {
+
+    @DataProvider(name = "invalidLogins", parallel = true)
+    public Iterator<Object[]> invalidLogins() {
+        return DataRows.open(Paths.get(ConfigReader.getProperty("data.invalidLogins", "src/test/resources/data/invalid-logins.csv")));
+    }
+
+    @Test(dataProvider = "invalidLogins")
+    public void testInvalidLogin(DataRow row) {
+        Map<String, String> values = row.read();
+        logger.info("Data row {}: {}", row, values.get("description"));
+        LoginPage loginPage = new LoginPage(getDriver(), getWait());
+        Assert.assertTrue(loginPage.isLoginPageDisplayed(), "Login page should be displayed");
+        loginPage.performLogin(values.getOrDefault("username", ""), values.getOrDefault("password", ""));
+        Assert.assertTrue(loginPage.isErrorMessageDisplayed(), "Error message should be displayed for " + values.get("description"));
+        String expectedError = values.getOrDefault("expectedError", "");
+        if (!expectedError.isEmpty()) {
+            String errorText = loginPage.getErrorMessageText();
+            Assert.assertTrue(errorText.toLowerCase().contains(expectedError.toLowerCase()),
+                    "Error message should mention '" + expectedError + "'. Actual: " + errorText);
+        }
+    }
+}
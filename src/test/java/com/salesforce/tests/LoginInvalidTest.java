@@ -2,15 +2,14 @@ package com.salesforce.tests;
 
 import com.salesforce.base.BaseTest;
 import com.salesforce.pages.LoginPage;
+import com.salesforce.pages.PageSnapshot;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 public class LoginInvalidTest extends BaseTest {
-    private LoginPage loginPage;
-
     @Test(priority = 1)
     public void testInvalidUsernameAndPassword() {
-        loginPage = new LoginPage(driver, wait);
+        LoginPage loginPage = new LoginPage(getDriver(), getWait());
         Assert.assertTrue(loginPage.isLoginPageDisplayed(), "Login page should be displayed");
         loginPage.performLogin("invalid_user@test.com", "invalid_password123");
         boolean isErrorDisplayed = loginPage.isErrorMessageDisplayed();
@@ -23,7 +22,7 @@ public class LoginInvalidTest extends BaseTest {
 
     @Test(priority = 2)
     public void testEmptyUsername() {
-        loginPage = new LoginPage(driver, wait);
+        LoginPage loginPage = new LoginPage(getDriver(), getWait());
         Assert.assertTrue(loginPage.isLoginPageDisplayed(), "Login page should be displayed");
         loginPage.enterUsername("");
         loginPage.enterPassword("somePassword123");
@@ -34,7 +33,7 @@ public class LoginInvalidTest extends BaseTest {
 
     @Test(priority = 3)
     public void testEmptyPassword() {
-        loginPage = new LoginPage(driver, wait);
+        LoginPage loginPage = new LoginPage(getDriver(), getWait());
         Assert.assertTrue(loginPage.isLoginPageDisplayed(), "Login page should be displayed");
         loginPage.enterUsername("testuser@example.com");
         loginPage.enterPassword("");
@@ -45,7 +44,7 @@ public class LoginInvalidTest extends BaseTest {
 
     @Test(priority = 4)
     public void testEmptyUsernameAndPassword() {
-        loginPage = new LoginPage(driver, wait);
+        LoginPage loginPage = new LoginPage(getDriver(), getWait());
         Assert.assertTrue(loginPage.isLoginPageDisplayed(), "Login page should be displayed");
         loginPage.enterUsername("");
         loginPage.enterPassword("");
@@ -56,7 +55,7 @@ public class LoginInvalidTest extends BaseTest {
 
     @Test(priority = 5)
     public void testInvalidEmailFormat() {
-        loginPage = new LoginPage(driver, wait);
+        LoginPage loginPage = new LoginPage(getDriver(), getWait());
         Assert.assertTrue(loginPage.isLoginPageDisplayed(), "Login page should be displayed");
         loginPage.performLogin("invalidemailformat", "password123");
         boolean isErrorDisplayed = loginPage.isErrorMessageDisplayed();
@@ -65,20 +64,22 @@ public class LoginInvalidTest extends BaseTest {
 
     @Test(priority = 6)
     public void testLoginPageUIElements() {
-        loginPage = new LoginPage(driver, wait);
-        Assert.assertTrue(loginPage.isUsernameFieldDisplayed(), "Username field should be displayed");
-        Assert.assertTrue(loginPage.isPasswordFieldDisplayed(), "Password field should be displayed");
-        Assert.assertTrue(loginPage.isLoginButtonDisplayed(), "Login button should be displayed");
-        Assert.assertTrue(loginPage.isRememberMeCheckboxDisplayed(), "Remember Me checkbox should be displayed");
-        Assert.assertTrue(loginPage.isForgotPasswordLinkDisplayed(), "Forgot Password link should be displayed");
+        LoginPage loginPage = new LoginPage(getDriver(), getWait());
+        PageSnapshot snapshot = loginPage.awaitSnapshot(LoginPage.USERNAME_FIELD, LoginPage.PASSWORD_FIELD,
+                LoginPage.LOGIN_BUTTON, LoginPage.REMEMBER_ME_CHECKBOX, LoginPage.FORGOT_PASSWORD_LINK);
+        Assert.assertTrue(snapshot.isVisible(LoginPage.USERNAME_FIELD), "Username field should be displayed");
+        Assert.assertTrue(snapshot.isVisible(LoginPage.PASSWORD_FIELD), "Password field should be displayed");
+        Assert.assertTrue(snapshot.isVisible(LoginPage.LOGIN_BUTTON), "Login button should be displayed");
+        Assert.assertTrue(snapshot.isVisible(LoginPage.REMEMBER_ME_CHECKBOX), "Remember Me checkbox should be displayed");
+        Assert.assertTrue(snapshot.isVisible(LoginPage.FORGOT_PASSWORD_LINK), "Forgot Password link should be displayed");
     }
 
     @Test(priority = 7)
     public void testForgotPasswordLink() {
-        loginPage = new LoginPage(driver, wait);
+        LoginPage loginPage = new LoginPage(getDriver(), getWait());
         Assert.assertTrue(loginPage.isLoginPageDisplayed(), "Login page should be displayed");
         loginPage.clickForgotPassword();
-        String currentUrl = driver.getCurrentUrl();
+        String currentUrl = getDriver().getCurrentUrl();
         Assert.assertTrue(currentUrl.contains("forgotpassword") || currentUrl.contains("ForgotPassword"),
                 "Should navigate to forgot password page");
     }
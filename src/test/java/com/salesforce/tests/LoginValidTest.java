@@ -8,20 +8,12 @@ import org.testng.SkipException;
 import org.testng.annotations.Test;
 
 public class LoginValidTest extends BaseTest {
-    private LoginPage loginPage;
-
-    private boolean hasValidCredentials() {
-        String username = ConfigReader.getUsername();
-        String password = ConfigReader.getPassword();
-        return !username.isEmpty() && !password.isEmpty() && !username.equals("encrypted_user");
-    }
-
     @Test(priority = 1)
     public void testValidLoginWithRememberMe() {
-        if (!hasValidCredentials()) {
+        if (!ConfigReader.hasValidCredentials()) {
             throw new SkipException("Skipping test: Update global.properties with real Salesforce credentials (Base64 encoded) to run valid login tests");
         }
-        loginPage = new LoginPage(driver, wait);
+        LoginPage loginPage = new LoginPage(getDriver(), getWait());
         Assert.assertTrue(loginPage.isLoginPageDisplayed(), "Login page should be displayed");
         loginPage.checkRememberMe();
         loginPage.performLogin(ConfigReader.getUsername(), ConfigReader.getPassword());
@@ -31,10 +23,10 @@ public class LoginValidTest extends BaseTest {
 
     @Test(priority = 2)
     public void testValidLoginWithoutRememberMe() {
-        if (!hasValidCredentials()) {
+        if (!ConfigReader.hasValidCredentials()) {
             throw new SkipException("Skipping test: Update global.properties with real Salesforce credentials (Base64 encoded) to run valid login tests");
         }
-        loginPage = new LoginPage(driver, wait);
+        LoginPage loginPage = new LoginPage(getDriver(), getWait());
         Assert.assertTrue(loginPage.isLoginPageDisplayed(), "Login page should be displayed");
         loginPage.uncheckRememberMe();
         loginPage.performLogin(ConfigReader.getUsername(), ConfigReader.getPassword());